@@ -0,0 +1,88 @@
+package com.campgemini.sample;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Non-blocking facade of {@link Database}. Lookups and blocking fallbacks (like {@code fetchDefaultPerson()} in
+ * {@link OptionalTest}) run on the given executor and callers get {@link CompletableFuture}s back.
+ * <p>
+ * With {@link #virtualThreadExecutor()} every task gets its own virtual thread when the runtime supports them, so
+ * thousands of slow lookups waiting at once do not tie up platform threads.
+ * <p>
+ * Lookups run on other threads than the caller, so they must not run concurrently with {@link Database#add(Person)}
+ * unless the store is thread-safe: add persons before the lookups start or use {@link Database#concurrent()}.
+ */
+@Slf4j
+class AsyncDatabase {
+
+    private final Database database;
+    private final ExecutorService executor;
+
+    AsyncDatabase(Database database, ExecutorService executor) {
+        this.database = database;
+        this.executor = executor;
+    }
+
+    /**
+     * @return virtual-thread-per-task executor on Java 21+, otherwise a cached pool of daemon platform threads
+     */
+    static ExecutorService virtualThreadExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.debug("Virtual threads are not supported by this runtime, using platform threads");
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                final Thread thread = new Thread(r, "async-database-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    CompletableFuture<Optional<Person>> findAsync(int id) {
+        return CompletableFuture.supplyAsync(() -> database.find(id), executor);
+    }
+
+    /**
+     * @see Database#findAll(int[])
+     */
+    CompletableFuture<Person[]> findAllAsync(int[] ids) {
+        return CompletableFuture.supplyAsync(() -> database.findAll(ids), executor);
+    }
+
+    /**
+     * Non-blocking {@code find(id).orElseGet(fallback)}: the fallback is started only on a miss and neither step blocks
+     * the caller
+     */
+    CompletableFuture<Person> findOrElseAsync(int id, Supplier<? extends CompletionStage<Person>> fallback) {
+        return orElseGetAsync(findAsync(id), fallback);
+    }
+
+    /**
+     * Like {@link #findOrElseAsync(int, Supplier)}, for a fallback which blocks; it is run on the executor
+     */
+    CompletableFuture<Person> findOrElseFetch(int id, Supplier<Person> blockingFallback) {
+        return findOrElseAsync(id, () -> CompletableFuture.supplyAsync(blockingFallback, executor));
+    }
+
+    /**
+     * Asynchronous counterpart of {@link Optional#orElseGet(Supplier)}
+     */
+    static CompletableFuture<Person> orElseGetAsync(CompletableFuture<Optional<Person>> person,
+                                                    Supplier<? extends CompletionStage<Person>> fallback) {
+        return person.thenCompose(p -> p.<CompletionStage<Person>> map(CompletableFuture::completedFuture)
+                                        .orElseGet(fallback));
+    }
+
+}
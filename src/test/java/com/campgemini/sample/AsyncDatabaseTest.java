@@ -0,0 +1,109 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see AsyncDatabase
+ */
+class AsyncDatabaseTest {
+
+    private static final Person DEFAULT_VALUE = new Person(0, "unknown", "unknown", 0);
+    private static final Duration FETCH_TIME = Duration.ofMillis(200);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private ExecutorService executor;
+    private AsyncDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        final Database db = new Database();
+        db.add(Person.builder()
+                     .id(1)
+                     .firstName("Jan")
+                     .lastName("Kowalski")
+                     .salary(2_000)
+                     .build());
+        executor = AsyncDatabase.virtualThreadExecutor();
+        database = new AsyncDatabase(db, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findAsync() throws Exception {
+        // when
+        final Optional<Person> found = database.findAsync(1)
+                                               .get(1, TimeUnit.SECONDS);
+        final Optional<Person> notFound = database.findAsync(10)
+                                                  .get(1, TimeUnit.SECONDS);
+        // then
+        assertThat(found).map(Person::getFirstName)
+                         .hasValue("Jan");
+        assertThat(notFound).isEmpty();
+    }
+
+    @Test
+    void findAllAsync() throws Exception {
+        // when
+        final Person[] found = database.findAllAsync(new int[] { 10, 1 })
+                                       .get(1, TimeUnit.SECONDS);
+        // then
+        assertThat(found[0]).isNull();
+        assertThat(found[1].getFirstName()).isEqualTo("Jan");
+    }
+
+    @Test
+    void findOrElseAsync_shouldNotCallFallback_forExistingPerson() throws Exception {
+        // when
+        final Person person = database.findOrElseAsync(1, () -> CompletableFuture.completedFuture(fetch()))
+                                      .get(1, TimeUnit.SECONDS);
+        // then
+        assertThat(person.getFirstName()).isEqualTo("Jan");
+        assertThat(fetches).hasValue(0);
+    }
+
+    @Test
+    void findOrElseFetch_shouldRunSlowFallbacksConcurrently() {
+        // given
+        final int lookups = 200;
+        final long start = System.nanoTime();
+        // when
+        final CompletableFuture<?>[] results = IntStream.range(0, lookups)
+                                                        .mapToObj(i -> database.findOrElseFetch(10 + i, this::fetch))
+                                                        .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(results)
+                         .join();
+        // then
+        assertThat(fetches).hasValue(lookups);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(FETCH_TIME.multipliedBy(lookups / 4));
+        assertThat(results[0].join()).isSameAs(DEFAULT_VALUE);
+    }
+
+    private Person fetch() {
+        fetches.incrementAndGet();
+        try {
+            // mimic long lasting operation
+            Thread.sleep(FETCH_TIME.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        return DEFAULT_VALUE;
+    }
+
+}
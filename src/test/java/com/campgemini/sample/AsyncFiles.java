@@ -0,0 +1,366 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Non-blocking counterpart of {@code Files.readAllBytes}, {@code Files.readAllLines} and
+ * {@code Files.newBufferedWriter} on {@link AsynchronousFileChannel}: every call returns at once with a
+ * {@link CompletableFuture}, I/O errors complete it exceptionally.
+ * <p>
+ * At most {@code maxInFlight} operations (and so open files) run at once, later ones wait in a queue without blocking
+ * the caller. Data is moved through pooled direct buffers of up to {@link #IO_CHUNK_SIZE} bytes, sized to the file, so
+ * reading many small files takes small buffers.
+ */
+@Slf4j
+class AsyncFiles implements Closeable {
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    static final int IO_CHUNK_SIZE = 1 << 16;
+    private static final Set<OpenOption> DEFAULT_WRITE_OPTIONS = Set.of(StandardOpenOption.CREATE,
+                                                                        StandardOpenOption.TRUNCATE_EXISTING,
+                                                                        StandardOpenOption.WRITE);
+
+    private final ExecutorService executor;
+    private final ByteBufferPool buffers;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger startRequests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    AsyncFiles() {
+        this(DEFAULT_MAX_IN_FLIGHT, ByteBufferPool.shared());
+    }
+
+    /**
+     * @param maxInFlight number of operations running at once
+     * @param buffers     source of I/O buffers, may be shared with other users
+     */
+    AsyncFiles(int maxInFlight, ByteBufferPool buffers) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight must be positive: " + maxInFlight);
+        }
+        final AtomicInteger number = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime()
+                                                            .availableProcessors(),
+                                                     r -> {
+                                                         final Thread thread = new Thread(r, "async-files-"
+                                                                 + number.incrementAndGet());
+                                                         thread.setDaemon(true);
+                                                         return thread;
+                                                     });
+        this.buffers = buffers;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    CompletableFuture<byte[]> readAllBytes(Path path) {
+        return throttle(() -> {
+            final CompletableFuture<byte[]> result = new CompletableFuture<>();
+            AsynchronousFileChannel channel = null;
+            try {
+                channel = AsynchronousFileChannel.open(path, Set.of(StandardOpenOption.READ), executor);
+                final long size = channel.size();
+                if (size > Integer.MAX_VALUE - 8) {
+                    throw new IOException("File is too large to read at once: " + path);
+                }
+                new Reader(channel, new byte[(int) size], result).next();
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) {
+                    close(channel);
+                }
+                result.completeExceptionally(e);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Like {@code Files.readString}: malformed input fails with a {@link CharacterCodingException}
+     */
+    CompletableFuture<String> readString(Path path, Charset charset) {
+        return readAllBytes(path).thenApply(bytes -> {
+            try {
+                return charset.newDecoder()
+                              .onMalformedInput(CodingErrorAction.REPORT)
+                              .onUnmappableCharacter(CodingErrorAction.REPORT)
+                              .decode(ByteBuffer.wrap(bytes))
+                              .toString();
+            } catch (CharacterCodingException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Lines split like {@code BufferedReader.readLine}, on {@code \n}, {@code \r} or {@code \r\n}
+     */
+    CompletableFuture<List<String>> readAllLines(Path path, Charset charset) {
+        return readString(path, charset).thenApply(content -> content.lines()
+                                                                     .collect(Collectors.toList()));
+    }
+
+    CompletableFuture<Long> writeString(Path path, CharSequence content, Charset charset, OpenOption... options) {
+        return write(path, charset.encode(CharBuffer.wrap(content)), options);
+    }
+
+    /**
+     * Options follow {@code Files.newOutputStream}: without options the file is created or truncated,
+     * {@link StandardOpenOption#CREATE_NEW} fails with {@code FileAlreadyExistsException} when the file exists and
+     * {@link StandardOpenOption#APPEND} writes after the current end.
+     *
+     * @return number of written bytes
+     * @throws IllegalArgumentException right away for {@link StandardOpenOption#READ} or {@code APPEND} with
+     *                                  {@code TRUNCATE_EXISTING}, like {@code Files.newBufferedWriter}
+     */
+    CompletableFuture<Long> write(Path path, byte[] content, OpenOption... options) {
+        return write(path, ByteBuffer.wrap(content), options);
+    }
+
+    private CompletableFuture<Long> write(Path path, ByteBuffer content, OpenOption... options) {
+        final Set<OpenOption> openOptions = new HashSet<>(options.length == 0 ? DEFAULT_WRITE_OPTIONS
+                : Arrays.asList(options));
+        if (openOptions.contains(StandardOpenOption.READ)) {
+            throw new IllegalArgumentException("READ not allowed");
+        }
+        final boolean append = openOptions.remove(StandardOpenOption.APPEND);
+        if (append && openOptions.contains(StandardOpenOption.TRUNCATE_EXISTING)) {
+            throw new IllegalArgumentException("APPEND + TRUNCATE_EXISTING not allowed");
+        }
+        openOptions.add(StandardOpenOption.WRITE);
+        return throttle(() -> {
+            final CompletableFuture<Long> result = new CompletableFuture<>();
+            AsynchronousFileChannel channel = null;
+            try {
+                channel = AsynchronousFileChannel.open(path, openOptions, executor);
+                new Writer(channel, content, append ? channel.size() : 0, result).next();
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) {
+                    close(channel);
+                }
+                result.completeExceptionally(e);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return most operations seen running at once
+     */
+    int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> throttle(Supplier<CompletableFuture<T>> operation) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            operation.get()
+                     .whenComplete((value, e) -> {
+                         inFlight.decrementAndGet();
+                         permits.release();
+                         startWaiting();
+                         if (e != null) {
+                             result.completeExceptionally(e);
+                         } else {
+                             result.complete(value);
+                         }
+                     });
+        });
+        startWaiting();
+        return result;
+    }
+
+    /**
+     * Starts queued operations while permits are free. One thread at a time starts them: an operation failing at once
+     * completes within {@code run()} and calls back here, which only asks the running loop for another round instead
+     * of recursing once per queued operation.
+     */
+    private void startWaiting() {
+        if (startRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            while (!waiting.isEmpty() && permits.tryAcquire()) {
+                final Runnable operation = waiting.poll();
+                if (operation == null) {
+                    permits.release();
+                } else {
+                    operation.run();
+                }
+            }
+            requests = startRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    /**
+     * Chain of reads into the array, one pooled buffer at a time
+     */
+    private final class Reader implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+        private final ByteBufferPool.Lease lease;
+        private final ByteBuffer buffer;
+        private final CompletableFuture<byte[]> result;
+        private byte[] bytes;
+        private int position;
+
+        Reader(AsynchronousFileChannel channel, byte[] bytes, CompletableFuture<byte[]> result) {
+            this.channel = channel;
+            this.lease = buffers.lease(Math.max(1, Math.min(bytes.length, IO_CHUNK_SIZE)));
+            this.buffer = lease.buffer();
+            this.bytes = bytes;
+            this.result = result;
+        }
+
+        void next() {
+            if (position == bytes.length) {
+                finish(null);
+                return;
+            }
+            buffer.clear()
+                  .limit(Math.min(buffer.capacity(), bytes.length - position));
+            try {
+                channel.read(buffer, position, null, this);
+            } catch (RuntimeException e) {
+                finish(e);
+            }
+        }
+
+        @Override
+        public void completed(Integer read, Void attachment) {
+            if (read < 0) {
+                // the file shrank since its size was read
+                bytes = Arrays.copyOf(bytes, position);
+            } else {
+                buffer.flip()
+                      .get(bytes, position, read);
+                position += read;
+            }
+            next();
+        }
+
+        @Override
+        public void failed(Throwable e, Void attachment) {
+            finish(e);
+        }
+
+        private void finish(Throwable e) {
+            lease.close();
+            close(channel);
+            if (e == null) {
+                result.complete(bytes);
+            } else {
+                result.completeExceptionally(e);
+            }
+        }
+
+    }
+
+    /**
+     * Chain of writes from the content, one pooled buffer at a time
+     */
+    private final class Writer implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+        private final ByteBufferPool.Lease lease;
+        private final ByteBuffer buffer;
+        private final ByteBuffer content;
+        private final long offset;
+        private final CompletableFuture<Long> result;
+        private long written;
+
+        Writer(AsynchronousFileChannel channel, ByteBuffer content, long offset, CompletableFuture<Long> result) {
+            this.channel = channel;
+            this.lease = buffers.lease(Math.max(1, Math.min(content.remaining(), IO_CHUNK_SIZE)));
+            this.buffer = lease.buffer()
+                               .flip();
+            this.content = content.duplicate();
+            this.offset = offset;
+            this.result = result;
+        }
+
+        void next() {
+            if (!buffer.hasRemaining()) {
+                if (!content.hasRemaining()) {
+                    finish(null);
+                    return;
+                }
+                buffer.clear();
+                final ByteBuffer chunk = content.duplicate();
+                chunk.limit(chunk.position() + Math.min(buffer.capacity(), chunk.remaining()));
+                buffer.put(chunk)
+                      .flip();
+                content.position(chunk.position());
+            }
+            try {
+                channel.write(buffer, offset + written, null, this);
+            } catch (RuntimeException e) {
+                finish(e);
+            }
+        }
+
+        @Override
+        public void completed(Integer count, Void attachment) {
+            written += count;
+            next();
+        }
+
+        @Override
+        public void failed(Throwable e, Void attachment) {
+            finish(e);
+        }
+
+        private void finish(Throwable e) {
+            lease.close();
+            close(channel);
+            if (e == null) {
+                result.complete(written);
+            } else {
+                result.completeExceptionally(e);
+            }
+        }
+
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Cannot close file channel", e);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see AsyncFiles
+ */
+class AsyncFilesTest {
+
+    @TempDir
+    Path directory;
+
+    private ByteBufferPool buffers;
+    private AsyncFiles files;
+
+    @BeforeEach
+    void setUp() {
+        buffers = ByteBufferPool.builder()
+                                .build();
+        files = new AsyncFiles(4, buffers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.close();
+    }
+
+    @Test
+    void readAllLines_existingFile() throws Exception {
+        // given: like FilesTest.readAllLines_existingFile_read
+        final Path path = Paths.get("src/test/resources/sampleFile.txt");
+        // when
+        final List<String> lines = files.readAllLines(path, StandardCharsets.US_ASCII)
+                                        .get();
+        // then
+        assertThat(lines).containsExactly("content of first line", "content of second line");
+    }
+
+    @Test
+    void readAllBytes_nonExistingFile() {
+        // when
+        final ExecutionException ex = assertThrows(ExecutionException.class,
+                                                   () -> files.readAllBytes(directory.resolve("missing"))
+                                                              .get());
+        // then
+        assertThat(ex.getCause()).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void readString_malformedInput() throws IOException {
+        // given
+        final Path path = Files.write(directory.resolve("latin2.txt"), new byte[] { 'a', (byte) 0xb1 });
+        // when
+        final ExecutionException ex = assertThrows(ExecutionException.class,
+                                                   () -> files.readString(path, StandardCharsets.UTF_8)
+                                                              .get());
+        // then
+        assertThat(ex.getCause()).isInstanceOf(CharacterCodingException.class);
+    }
+
+    @Test
+    void writeAndRead_manyFilesThrottled() throws Exception {
+        // given: files larger than a pooled buffer, more files than operations allowed at once
+        final Random random = new Random(42);
+        final List<byte[]> contents = new ArrayList<>();
+        final List<CompletableFuture<Long>> writes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final byte[] content = new byte[random.nextInt(10_000)];
+            random.nextBytes(content);
+            contents.add(content);
+            writes.add(files.write(directory.resolve("file" + i), content));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]))
+                         .get();
+        // when
+        final List<CompletableFuture<byte[]>> reads = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            reads.add(files.readAllBytes(directory.resolve("file" + i)));
+        }
+        // then
+        for (int i = 0; i < contents.size(); i++) {
+            assertThat(writes.get(i)
+                             .get()).isEqualTo(contents.get(i).length);
+            assertThat(reads.get(i)
+                            .get()).isEqualTo(contents.get(i));
+        }
+        assertThat(files.peakInFlight()).isBetween(1, 4);
+        assertThat(buffers.allocations()).as("buffers of 100 operations are reused")
+                                         .isLessThan(25);
+    }
+
+    @Test
+    void write_createNewOption() throws Exception {
+        // given
+        final Path path = directory.resolve("new.txt");
+        files.writeString(path, "first", StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW)
+             .get();
+        // when
+        final ExecutionException ex = assertThrows(ExecutionException.class,
+                                                   () -> files.writeString(path, "second", StandardCharsets.UTF_8,
+                                                                           StandardOpenOption.CREATE_NEW)
+                                                              .get());
+        // then
+        assertThat(ex.getCause()).isInstanceOf(FileAlreadyExistsException.class);
+        assertThat(Files.readString(path)).isEqualTo("first");
+    }
+
+    @Test
+    void write_withReadOption() {
+        // given
+        final Path path = directory.resolve("read.txt");
+        // then: like FilesTest.newBufferedWriter_withReadOption
+        assertThrows(IllegalArgumentException.class,
+                     () -> files.writeString(path, "x", StandardCharsets.UTF_8, StandardOpenOption.READ));
+    }
+
+    @Test
+    void write_truncateAndAppend() throws Exception {
+        // given
+        final Path path = directory.resolve("log.txt");
+        files.writeString(path, "a much longer first line\n", StandardCharsets.UTF_8)
+             .get();
+        // when
+        files.writeString(path, "first\n", StandardCharsets.UTF_8)
+             .get();
+        files.writeString(path, "second\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND)
+             .get();
+        // then
+        assertThat(Files.readAllLines(path)).containsExactly("first", "second");
+        assertThrows(IllegalArgumentException.class,
+                     () -> files.writeString(path, "x", StandardCharsets.UTF_8, StandardOpenOption.APPEND,
+                                             StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+}
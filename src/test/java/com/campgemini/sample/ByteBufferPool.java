@@ -0,0 +1,273 @@
+package com.campgemini.sample;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool of direct buffers, so I/O neither allocates (and later frees) native memory per operation nor goes through the
+ * JDK's temporary direct copy of heap buffers.
+ * <ul>
+ * <li>size classes - powers of two from {@code minBufferSize} to {@code maxBufferSize}; a {@link #lease(int)} gets
+ * the smallest class that fits, larger requests are allocated and dropped without pooling</li>
+ * <li>thread-local caches - a few released buffers per class stay with the releasing thread and are taken without
+ * contention, the rest go to a shared queue of at most {@code maxPooled} buffers per class</li>
+ * <li>leak detection - optionally a {@link Cleaner} watches every {@link Lease}; a lease collected without
+ * {@link Lease#close()} is counted and logged with the place it was taken; its buffer is not pooled again, it may
+ * still be in use through another reference</li>
+ * </ul>
+ * Thread-local caches live as long as their thread, so the pool is meant for long-lived (pool) threads.
+ *
+ * @see AsyncFiles
+ * @see ChannelInput
+ */
+@Slf4j
+class ByteBufferPool {
+
+    static final int DEFAULT_MIN_BUFFER_SIZE = 1 << 12;
+    static final int DEFAULT_MAX_BUFFER_SIZE = 1 << 22;
+    static final int DEFAULT_MAX_POOLED = 64;
+    static final int DEFAULT_THREAD_CACHE_SIZE = 4;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int minShift;
+    private final int maxBufferSize;
+    private final int maxPooled;
+    private final int threadCacheSize;
+    private final boolean leakDetection;
+    private final SizeClass[] classes;
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> threadCaches;
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder threadCacheHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    /**
+     * @param minBufferSize   smallest size class, rounded up to a power of two, {@link #DEFAULT_MIN_BUFFER_SIZE} by
+     *                        default
+     * @param maxBufferSize   largest pooled size, {@link #DEFAULT_MAX_BUFFER_SIZE} by default
+     * @param maxPooled       shared buffers kept per class, {@link #DEFAULT_MAX_POOLED} by default, negative for none
+     * @param threadCacheSize buffers kept per class and thread, {@link #DEFAULT_THREAD_CACHE_SIZE} by default,
+     *                        negative for none
+     * @param leakDetection   tracks leases with a {@link Cleaner}, costs an allocation site per lease
+     */
+    @Builder
+    @SuppressWarnings("unchecked")
+    private ByteBufferPool(int minBufferSize, int maxBufferSize, int maxPooled, int threadCacheSize,
+                           boolean leakDetection) {
+        final int min = minBufferSize > 0 ? minBufferSize : DEFAULT_MIN_BUFFER_SIZE;
+        final int max = maxBufferSize > 0 ? maxBufferSize : DEFAULT_MAX_BUFFER_SIZE;
+        if (min > max) {
+            throw new IllegalArgumentException("Min buffer size " + min + " is larger than max " + max);
+        }
+        this.minShift = shift(min);
+        this.maxBufferSize = 1 << shift(max);
+        this.maxPooled = maxPooled == 0 ? DEFAULT_MAX_POOLED : Math.max(maxPooled, 0);
+        this.threadCacheSize = threadCacheSize == 0 ? DEFAULT_THREAD_CACHE_SIZE : Math.max(threadCacheSize, 0);
+        this.leakDetection = leakDetection;
+        this.classes = new SizeClass[shift(max) - minShift + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass();
+        }
+        this.threadCaches = ThreadLocal.withInitial(() -> newCaches(classes.length));
+    }
+
+    /**
+     * @return pool with default settings shared by the file helpers of this package
+     */
+    static ByteBufferPool shared() {
+        return Shared.POOL;
+    }
+
+    /**
+     * @return pool which allocates a new buffer for every lease, the baseline for measurements
+     */
+    static ByteBufferPool unpooled() {
+        return builder().maxPooled(-1)
+                        .threadCacheSize(-1)
+                        .build();
+    }
+
+    /**
+     * @return lease of a cleared buffer with at least {@code minCapacity} bytes, close it to return the buffer
+     */
+    Lease lease(int minCapacity) {
+        return new Lease(acquire(minCapacity));
+    }
+
+    long allocations() {
+        return allocations.sum();
+    }
+
+    long threadCacheHits() {
+        return threadCacheHits.sum();
+    }
+
+    long sharedHits() {
+        return sharedHits.sum();
+    }
+
+    /**
+     * @return leases collected without being closed, counted only with leak detection
+     */
+    long leaks() {
+        return leaks.sum();
+    }
+
+    private ByteBuffer acquire(int minCapacity) {
+        final int index = sizeClass(minCapacity);
+        if (index < 0) {
+            allocations.increment();
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        final ArrayDeque<ByteBuffer> cache = threadCaches.get()[index];
+        ByteBuffer buffer = cache == null ? null : cache.poll();
+        if (buffer != null) {
+            threadCacheHits.increment();
+            return buffer.clear();
+        }
+        final SizeClass sizeClass = classes[index];
+        buffer = sizeClass.free.poll();
+        if (buffer != null) {
+            sizeClass.pooled.decrementAndGet();
+            sharedHits.increment();
+            return buffer.clear();
+        }
+        allocations.increment();
+        return ByteBuffer.allocateDirect(1 << (index + minShift));
+    }
+
+    private void recycle(ByteBuffer buffer, boolean threadLocal) {
+        final int index = sizeClass(buffer.capacity());
+        if (index < 0 || buffer.capacity() != 1 << (index + minShift)) {
+            return;
+        }
+        if (threadLocal && threadCacheSize > 0) {
+            final ArrayDeque<ByteBuffer>[] caches = threadCaches.get();
+            if (caches[index] == null) {
+                caches[index] = new ArrayDeque<>(threadCacheSize);
+            }
+            if (caches[index].size() < threadCacheSize) {
+                caches[index].push(buffer);
+                return;
+            }
+        }
+        final SizeClass sizeClass = classes[index];
+        if (sizeClass.pooled.incrementAndGet() <= maxPooled) {
+            sizeClass.free.offer(buffer);
+        } else {
+            sizeClass.pooled.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return index of the smallest class holding {@code capacity} bytes, {@code -1} when it is too large
+     */
+    private int sizeClass(int capacity) {
+        if (capacity > maxBufferSize) {
+            return -1;
+        }
+        return Math.max(0, shift(capacity) - minShift);
+    }
+
+    /**
+     * @return exponent of the smallest power of two not less than {@code size}
+     */
+    private static int shift(int size) {
+        return size <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /**
+     * @return per-thread caches of all size classes, created on first use
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<ByteBuffer>[] newCaches(int length) {
+        return (ArrayDeque<ByteBuffer>[]) new ArrayDeque<?>[length];
+    }
+
+    /**
+     * Exclusive use of a pooled buffer until {@link #close()}
+     */
+    final class Lease implements AutoCloseable {
+
+        private final ByteBuffer buffer;
+        private final LeakCheck leakCheck;
+        private final Cleaner.Cleanable cleanable;
+        private boolean closed;
+
+        private Lease(ByteBuffer buffer) {
+            this.buffer = buffer;
+            if (leakDetection) {
+                leakCheck = new LeakCheck(buffer.capacity(), new Throwable("Buffer leased here"));
+                cleanable = CLEANER.register(this, leakCheck);
+            } else {
+                leakCheck = null;
+                cleanable = null;
+            }
+        }
+
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * Returns the buffer to the pool, it must not be used afterwards
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                throw new IllegalStateException("Lease already closed");
+            }
+            closed = true;
+            if (cleanable != null) {
+                leakCheck.closed = true;
+                cleanable.clean();
+            }
+            recycle(buffer, true);
+        }
+
+    }
+
+    /**
+     * Cleaning action of a lease, must reference neither the lease nor its buffer
+     */
+    private final class LeakCheck implements Runnable {
+
+        private final int capacity;
+        private final Throwable leasedAt;
+        private volatile boolean closed;
+
+        LeakCheck(int capacity, Throwable leasedAt) {
+            this.capacity = capacity;
+            this.leasedAt = leasedAt;
+        }
+
+        @Override
+        public void run() {
+            if (!closed) {
+                leaks.increment();
+                log.warn("Buffer of {} bytes was not returned to the pool", capacity, leasedAt);
+            }
+        }
+
+    }
+
+    private static final class SizeClass {
+        final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pooled = new AtomicInteger();
+    }
+
+    private static final class Shared {
+        static final ByteBufferPool POOL = builder().build();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.campgemini.sample;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reading many small files, the case where per-open buffers dominate: {@link BufferedReader} (fresh heap arrays per
+ * reader) against {@link PersonCsv} and {@link AsyncFiles} with a pooled or an unpooled {@link ByteBufferPool}. Run
+ * with {@code -prof gc} to see the allocation rate ({@code gc.alloc.rate.norm} is bytes per operation); native memory
+ * of unpooled direct buffers shows up as time, not as heap allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteBufferPoolBenchmark {
+
+    @Param({ "pooled", "unpooled" })
+    private String pool;
+
+    private Path file;
+    private ByteBufferPool buffers;
+    private AsyncFiles files;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("persons", ".csv");
+        Files.writeString(file, PersonCsv.HEADER + "\n" + IntStream.range(0, 20)
+                                                                .mapToObj(id -> id + ",Jan,Kowalski," + id * 1000)
+                                                                .collect(Collectors.joining("\n")));
+        buffers = "pooled".equals(pool) ? ByteBufferPool.builder()
+                                                         .build()
+                : ByteBufferPool.unpooled();
+        files = new AsyncFiles(AsyncFiles.DEFAULT_MAX_IN_FLIGHT, buffers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        files.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public void bufferedReader(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line);
+            }
+        }
+    }
+
+    @Benchmark
+    public void csvReader(Blackhole blackhole) throws IOException {
+        try (PersonCsv.Reader reader = PersonCsv.reader(FileChannel.open(file), buffers)) {
+            reader.forEachRemaining(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public byte[] asyncRead() {
+        return files.readAllBytes(file)
+                    .join();
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see ByteBufferPool
+ */
+class ByteBufferPoolTest {
+
+    @Test
+    void lease_roundsUpToSizeClass() {
+        // given
+        final ByteBufferPool pool = ByteBufferPool.builder()
+                                                  .minBufferSize(1024)
+                                                  .maxBufferSize(1 << 16)
+                                                  .build();
+        // then
+        try (ByteBufferPool.Lease small = pool.lease(1);
+             ByteBufferPool.Lease medium = pool.lease(1025);
+             ByteBufferPool.Lease large = pool.lease(1 << 16);
+             ByteBufferPool.Lease huge = pool.lease((1 << 16) + 1)) {
+            assertThat(small.buffer()
+                            .capacity()).isEqualTo(1024);
+            assertThat(medium.buffer()
+                             .capacity()).isEqualTo(2048);
+            assertThat(large.buffer()
+                            .capacity()).isEqualTo(1 << 16);
+            assertThat(huge.buffer()
+                           .capacity()).isEqualTo((1 << 16) + 1);
+            assertThat(small.buffer()
+                            .isDirect()).isTrue();
+        }
+    }
+
+    @Test
+    void lease_reusesFromThreadCache() {
+        // given
+        final ByteBufferPool pool = ByteBufferPool.builder()
+                                                  .build();
+        final ByteBuffer first;
+        try (ByteBufferPool.Lease lease = pool.lease(100)) {
+            first = lease.buffer();
+            first.putInt(42);
+        }
+        // when
+        try (ByteBufferPool.Lease lease = pool.lease(100)) {
+            // then
+            assertThat(lease.buffer()).isSameAs(first);
+            assertThat(lease.buffer()
+                            .position()).isZero();
+        }
+        assertThat(pool.allocations()).isEqualTo(1);
+        assertThat(pool.threadCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void lease_sharedAcrossThreadsWhenThreadCacheIsFull() {
+        // given: a thread cache of one buffer, the second released buffer goes to the shared queue
+        final ByteBufferPool pool = ByteBufferPool.builder()
+                                                  .threadCacheSize(1)
+                                                  .build();
+        final ByteBufferPool.Lease first = pool.lease(100);
+        final ByteBufferPool.Lease second = pool.lease(100);
+        first.close();
+        second.close();
+        // when
+        final ByteBuffer other = CompletableFuture.supplyAsync(() -> {
+            try (ByteBufferPool.Lease lease = pool.lease(100)) {
+                return lease.buffer();
+            }
+        })
+                                                  .join();
+        // then
+        assertThat(other).isSameAs(second.buffer());
+        assertThat(pool.sharedHits()).isEqualTo(1);
+        assertThat(pool.allocations()).isEqualTo(2);
+    }
+
+    @Test
+    void unpooled_allocatesEveryTime() {
+        // given
+        final ByteBufferPool pool = ByteBufferPool.unpooled();
+        // when
+        for (int i = 0; i < 3; i++) {
+            pool.lease(100)
+                .close();
+        }
+        // then
+        assertThat(pool.allocations()).isEqualTo(3);
+    }
+
+    @Test
+    void close_twice() {
+        // given
+        final ByteBufferPool.Lease lease = ByteBufferPool.shared()
+                                                         .lease(100);
+        lease.close();
+        // then
+        assertThrows(IllegalStateException.class, lease::close);
+    }
+
+    @Test
+    void leakDetection_countsUnclosedLease() throws InterruptedException {
+        // given
+        final ByteBufferPool pool = ByteBufferPool.builder()
+                                                  .leakDetection(true)
+                                                  .build();
+        pool.lease(100)
+            .close();
+        leak(pool);
+        // when
+        for (int i = 0; i < 100 && pool.leaks() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        // then
+        assertThat(pool.leaks()).isEqualTo(1);
+        assertThat(pool.sharedHits() + pool.threadCacheHits()).isEqualTo(1);
+        try (ByteBufferPool.Lease first = pool.lease(100);
+             ByteBufferPool.Lease second = pool.lease(100)) {
+            assertThat(first.buffer()).isNotSameAs(second.buffer());
+            assertThat(pool.allocations()).as("leaked buffer is not pooled again")
+                                          .isEqualTo(3);
+        }
+    }
+
+    private static void leak(ByteBufferPool pool) {
+        // the thread cache holds the first buffer, the leaked one has to be allocated
+        final ByteBufferPool.Lease kept = pool.lease(100);
+        pool.lease(100);
+        kept.close();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered reading from a {@link ReadableByteChannel} into a pooled direct buffer. Unconsumed bytes
+ * {@code [position, limit)} of the {@link #buffer()} survive {@link #fill()}, which moves them to the start (growing
+ * the buffer when they fill it), so a parser can keep offsets relative to the position of the record being parsed.
+ *
+ * @see ChannelOutput
+ * @see ByteBufferPool
+ */
+final class ChannelInput implements Closeable {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBufferPool buffers;
+    private ByteBufferPool.Lease lease;
+    private ByteBuffer buffer;
+    private byte[] scratch = new byte[64];
+    private boolean eof;
+
+    ChannelInput(ReadableByteChannel channel) {
+        this(channel, ByteBufferPool.shared(), DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelInput(ReadableByteChannel channel, ByteBufferPool buffers, int bufferSize) {
+        this.channel = channel;
+        this.buffers = buffers;
+        this.lease = buffers.lease(bufferSize);
+        this.buffer = lease.buffer()
+                           .flip();
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Reads more bytes after the unconsumed ones, which are moved to position 0
+     *
+     * @return {@code false} at the end of the channel
+     */
+    boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            final ByteBufferPool.Lease grown = buffers.lease(buffer.capacity() << 1);
+            grown.buffer()
+                 .put(buffer);
+            lease.close();
+            lease = grown;
+            buffer = grown.buffer();
+        } else {
+            buffer.compact();
+        }
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0 && buffer.hasRemaining());
+        buffer.flip();
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} when the channel ends before {@code bytes} bytes are available
+     */
+    boolean request(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (!fill()) {
+                return buffer.remaining() >= bytes;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return UTF-8 string of {@code length} bytes at the absolute {@code offset} of the buffer
+     */
+    String decode(int offset, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length << 1)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(offset + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (lease == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } finally {
+            lease.close();
+            lease = null;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered writing to a {@link WritableByteChannel} from a pooled direct buffer: callers {@link #reserve(int)} space
+ * and put bytes straight into the buffer. Closing flushes.
+ *
+ * @see ChannelInput
+ * @see ByteBufferPool
+ */
+final class ChannelOutput implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final ByteBufferPool buffers;
+    private ByteBufferPool.Lease lease;
+    private ByteBuffer buffer;
+
+    ChannelOutput(WritableByteChannel channel) {
+        this(channel, ByteBufferPool.shared(), ChannelInput.DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelOutput(WritableByteChannel channel, ByteBufferPool buffers, int bufferSize) {
+        this.channel = channel;
+        this.buffers = buffers;
+        this.lease = buffers.lease(bufferSize);
+        this.buffer = lease.buffer();
+    }
+
+    /**
+     * @return buffer with at least {@code bytes} remaining
+     */
+    ByteBuffer reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.capacity() < bytes) {
+                lease.close();
+                lease = buffers.lease(bytes);
+                buffer = lease.buffer();
+            }
+        }
+        return buffer;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (lease == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                lease.close();
+                lease = null;
+            }
+        }
+    }
+
+}
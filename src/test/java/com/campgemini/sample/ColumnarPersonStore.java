@@ -0,0 +1,243 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Struct-of-arrays {@link PersonStore}: ids are kept in an {@code int[]}, salaries in a {@code long[]} and names as
+ * {@link StringDictionary} codes in {@code int[]} columns. Scans like {@link #sumSalary()} or
+ * {@link #filterSalaryGreaterThan(long)} run over a single primitive column in a counted loop which the JIT can unroll
+ * and vectorize. {@link Person} objects are materialized only by {@link #get(int)}, {@link #forEach(Consumer)} and
+ * snapshots.
+ * <p>
+ * Like {@link IntPersonStore} it is not thread-safe and its snapshots are copy-on-write.
+ */
+class ColumnarPersonStore implements PersonStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final StringDictionary firstNameDictionary = new StringDictionary();
+    private final StringDictionary lastNameDictionary = new StringDictionary();
+    private IntIntMap rows;
+    private int[] ids;
+    private long[] salaries;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int size;
+    private boolean shared;
+
+    ColumnarPersonStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ColumnarPersonStore(int expectedSize) {
+        final int capacity = Math.max(expectedSize, DEFAULT_CAPACITY);
+        rows = new IntIntMap(capacity);
+        ids = new int[capacity];
+        salaries = new long[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+    }
+
+    @Override
+    public Person get(int id) {
+        final int row = rows.get(id);
+        return row == IntIntMap.NO_VALUE ? null : materialize(row);
+    }
+
+    @Override
+    public Person put(Person person) {
+        ensureWritable();
+        int row = rows.get(person.getId());
+        final Person previous;
+        if (row == IntIntMap.NO_VALUE) {
+            previous = null;
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rows.put(person.getId(), row);
+        } else {
+            previous = materialize(row);
+        }
+        ids[row] = person.getId();
+        salaries[row] = person.getSalary();
+        firstNames[row] = firstNameDictionary.encode(person.getFirstName());
+        lastNames[row] = lastNameDictionary.encode(person.getLastName());
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Person> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(materialize(row));
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        ensureWritable();
+        rows.ensureCapacity(expectedSize);
+        if (expectedSize > ids.length) {
+            resize(expectedSize);
+        }
+    }
+
+    @Override
+    public PersonSnapshot snapshot() {
+        shared = true;
+        return new Snapshot(this);
+    }
+
+    @Override
+    public Spliterator<Person> spliterator() {
+        return IntStream.range(0, size)
+                        .mapToObj(this::materialize)
+                        .spliterator();
+    }
+
+    long sumSalary() {
+        final long[] salaries = this.salaries;
+        final int size = this.size;
+        long sum = 0;
+        for (int row = 0; row < size; row++) {
+            sum += salaries[row];
+        }
+        return sum;
+    }
+
+    int countSalaryGreaterThan(long threshold) {
+        final long[] salaries = this.salaries;
+        final int size = this.size;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            count += salaries[row] > threshold ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return ids of persons earning more than the threshold, in insertion order
+     */
+    int[] filterSalaryGreaterThan(long threshold) {
+        final long[] salaries = this.salaries;
+        final int[] ids = this.ids;
+        final int size = this.size;
+        final int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            // branch-free: the id is always written, but kept only when the predicate holds
+            result[count] = ids[row];
+            count += salaries[row] > threshold ? 1 : 0;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Compares dictionary codes instead of strings: the name is looked up once, not once per row
+     *
+     * @return ids of persons with given first name, in insertion order
+     */
+    int[] filterFirstNameEqualTo(String firstName) {
+        final int code = firstNameDictionary.codeOf(firstName);
+        if (code == StringDictionary.NULL) {
+            return new int[0];
+        }
+        final int[] firstNames = this.firstNames;
+        final int[] ids = this.ids;
+        final int size = this.size;
+        final int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            result[count] = ids[row];
+            count += firstNames[row] == code ? 1 : 0;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private Person materialize(int row) {
+        return new Person(ids[row],
+                          firstNameDictionary.decode(firstNames[row]),
+                          lastNameDictionary.decode(lastNames[row]),
+                          salaries[row]);
+    }
+
+    private void ensureWritable() {
+        if (shared) {
+            rows = rows.clone();
+            ids = ids.clone();
+            salaries = salaries.clone();
+            firstNames = firstNames.clone();
+            lastNames = lastNames.clone();
+            shared = false;
+        }
+    }
+
+    private void grow() {
+        resize(ids.length << 1);
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+    }
+
+    private static class Snapshot implements PersonSnapshot {
+
+        private final IntIntMap rows;
+        private final int[] ids;
+        private final long[] salaries;
+        private final int[] firstNames;
+        private final int[] lastNames;
+        private final String[] firstNameValues;
+        private final String[] lastNameValues;
+        private final int size;
+
+        Snapshot(ColumnarPersonStore store) {
+            rows = store.rows;
+            ids = store.ids;
+            salaries = store.salaries;
+            firstNames = store.firstNames;
+            lastNames = store.lastNames;
+            firstNameValues = store.firstNameDictionary.values();
+            lastNameValues = store.lastNameDictionary.values();
+            size = store.size;
+        }
+
+        @Override
+        public Person get(int id) {
+            final int row = rows.get(id);
+            return row == IntIntMap.NO_VALUE ? null : materialize(row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Spliterator<Person> spliterator() {
+            return IntStream.range(0, size)
+                            .mapToObj(this::materialize)
+                            .spliterator();
+        }
+
+        private Person materialize(int row) {
+            return new Person(ids[row],
+                              firstNames[row] == StringDictionary.NULL ? null : firstNameValues[firstNames[row]],
+                              lastNames[row] == StringDictionary.NULL ? null : lastNameValues[lastNames[row]],
+                              salaries[row]);
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see ColumnarPersonStore
+ */
+class ColumnarPersonStoreTest {
+
+    private ColumnarPersonStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarPersonStore(2);
+        store.put(person(1, "Jan", "Kowalski", 2_000));
+        store.put(person(2, "Karolina", "Piekna", 500));
+        store.put(person(3, "John", "Smith", 100));
+        store.put(person(4, "Jan", "Nowak", 1_500));
+    }
+
+    @Test
+    void shouldMaterializePerson_onlyWhenAskedFor() {
+        // when
+        final Person person = store.get(2);
+        // then
+        assertThat(person).isEqualTo(person(2, "Karolina", "Piekna", 500));
+        assertThat(store.get(10)).isNull();
+        assertThat(store.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldOverwriteRow_ofPersonWithTheSameId() {
+        // when
+        final Person previous = store.put(person(3, "John", "Smith", 300));
+        // then
+        assertThat(previous.getSalary()).isEqualTo(100);
+        assertThat(store.get(3)
+                        .getSalary()).isEqualTo(300);
+        assertThat(store.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldScanSalaryColumn() {
+        assertThat(store.sumSalary()).isEqualTo(4_100);
+        assertThat(store.countSalaryGreaterThan(1_000)).isEqualTo(2);
+        assertThat(store.filterSalaryGreaterThan(1_000)).containsExactly(1, 4);
+        assertThat(store.filterSalaryGreaterThan(5_000)).isEmpty();
+    }
+
+    @Test
+    void shouldScanDictionaryEncodedNames() {
+        assertThat(store.filterFirstNameEqualTo("Jan")).containsExactly(1, 4);
+        assertThat(store.filterFirstNameEqualTo("Adam")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepNullNames() {
+        // when
+        store.put(person(5, null, null, 0));
+        // then
+        assertThat(store.get(5)
+                        .getFirstName()).isNull();
+        assertThat(store.get(5)
+                        .getLastName()).isNull();
+    }
+
+    @Test
+    void snapshot_isNotAffectedByLaterChanges() {
+        // given
+        final PersonSnapshot snapshot = store.snapshot();
+        // when
+        store.put(person(1, "Janusz", "Kowalski", 3_000));
+        store.put(person(5, "Adam", "Nowak", 700));
+        // then
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.get(1)
+                           .getFirstName()).isEqualTo("Jan");
+        assertThat(snapshot.get(5)).isNull();
+        assertThat(snapshot.stream()
+                           .mapToLong(Person::getSalary)
+                           .sum()).isEqualTo(4_100);
+        assertThat(store.sumSalary()).isEqualTo(5_800);
+    }
+
+    @Test
+    void shouldBackDatabase() {
+        // given
+        final Database database = new Database(store);
+        // then
+        assertThat(database.find(1)).isPresent();
+        assertThat(database.findAll()).hasSize(4);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.campgemini.sample;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multi-threaded throughput of {@link ConcurrentPersonStore} against the single-threaded {@link HashMapPersonStore}
+ * behind a {@code synchronized} wrapper, for read-heavy (7:1), mixed (4:4) and write-heavy (1:7) workloads
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentDatabaseBenchmark {
+
+    @Param({ "concurrent", "synchronized" })
+    private String store;
+
+    @Param({ "100000" })
+    private int size;
+
+    private Database database;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        database = "concurrent".equals(store) ? Database.concurrent()
+                : new Database(new SynchronizedPersonStore(new HashMapPersonStore()));
+        for (int id = 0; id < size; id++) {
+            database.add(person(id));
+        }
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(7)
+    public Person readHeavy_find() {
+        return find();
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public void readHeavy_add() {
+        add();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Person mixed_find() {
+        return find();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public void mixed_add() {
+        add();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(1)
+    public Person writeHeavy_find() {
+        return find();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(7)
+    public void writeHeavy_add() {
+        add();
+    }
+
+    private Person find() {
+        return database.findOrNull(ThreadLocalRandom.current()
+                                                    .nextInt(size));
+    }
+
+    /**
+     * Ids are drawn from twice the initial size, so the table grows during the first iterations and then stays stable
+     */
+    private void add() {
+        database.add(person(ThreadLocalRandom.current()
+                                             .nextInt(size * 2)));
+    }
+
+    private static Person person(int id) {
+        return Person.builder()
+                     .id(id)
+                     .firstName("Jan")
+                     .lastName("Kowalski")
+                     .salary(id)
+                     .build();
+    }
+
+    private static class SynchronizedPersonStore implements PersonStore {
+
+        private final PersonStore delegate;
+
+        SynchronizedPersonStore(PersonStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized Person get(int id) {
+            return delegate.get(id);
+        }
+
+        @Override
+        public synchronized Person put(Person person) {
+            return delegate.put(person);
+        }
+
+        @Override
+        public synchronized int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public synchronized void forEach(Consumer<? super Person> action) {
+            delegate.forEach(action);
+        }
+
+        @Override
+        public synchronized PersonSnapshot snapshot() {
+            return delegate.snapshot();
+        }
+
+    }
+
+}
@@ -0,0 +1,408 @@
+package com.campgemini.sample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe {@link PersonStore}. Ids are spread over lock-striped segments, each of them being an open-addressing
+ * table like {@link IntPersonStore}.
+ * <ul>
+ * <li>{@link #get(int)} never locks. A person is published with release semantics after its id has been written, so a
+ * reader which sees a person in a slot also sees its id. A grown table is filled completely before it is published.</li>
+ * <li>{@link #put(Person)} locks only the segment of the id, so writers of different segments do not contend.</li>
+ * <li>{@link #putAll(Collection)} partitions persons by segment and fills the segments in parallel, taking each lock
+ * once.</li>
+ * <li>{@link #snapshot()} locks all segments for a moment and marks their tables as shared; the next write to a shared
+ * table copies it first (copy-on-write).</li>
+ * </ul>
+ */
+class ConcurrentPersonStore implements PersonStore {
+
+    private static final VarHandle PERSONS = MethodHandles.arrayElementVarHandle(Person[].class);
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    ConcurrentPersonStore() {
+        this(Runtime.getRuntime()
+                    .availableProcessors() * 4);
+    }
+
+    /**
+     * @param concurrencyLevel expected number of concurrent writers, rounded up to a power of two
+     */
+    ConcurrentPersonStore(int concurrencyLevel) {
+        if (concurrencyLevel < 1 || concurrencyLevel > 1 << 16) {
+            throw new IllegalArgumentException("Concurrency level must be in range [1, 65536]: " + concurrencyLevel);
+        }
+        int count = 1;
+        while (count < concurrencyLevel) {
+            count <<= 1;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        // the highest bits of the hash select the segment, the lowest bits the slot in it
+        segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    @Override
+    public Person get(int id) {
+        final int hash = IntPersonStore.hash(id);
+        return segmentFor(hash).table.get(id, hash);
+    }
+
+    @Override
+    public Person put(Person person) {
+        final int hash = IntPersonStore.hash(person.getId());
+        return segmentFor(hash).put(person, hash);
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        final int perSegment = expectedSize / segments.length + 1;
+        for (Segment segment : segments) {
+            segment.ensureCapacity(perSegment);
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends Person> persons) {
+        final Person[] all = persons.toArray(new Person[0]);
+        final int[] hashes = new int[all.length];
+        // counting sort by segment; stable, so a later person with the same id still wins
+        final int[] starts = new int[segments.length + 1];
+        for (int i = 0; i < all.length; i++) {
+            hashes[i] = IntPersonStore.hash(all[i].getId());
+            starts[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            starts[s + 1] += starts[s];
+        }
+        final int[] order = new int[all.length];
+        final int[] cursors = starts.clone();
+        for (int i = 0; i < all.length; i++) {
+            order[cursors[segmentIndex(hashes[i])]++] = i;
+        }
+        IntStream.range(0, segments.length)
+                 .parallel()
+                 .forEach(s -> segments[s].putAll(all, hashes, order, starts[s], starts[s + 1]));
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Weakly consistent: sees every person added before the call and may see persons added during it
+     */
+    @Override
+    public void forEach(Consumer<? super Person> action) {
+        for (Segment segment : segments) {
+            final Person[] persons = segment.table.persons;
+            for (int i = 0; i < persons.length; i++) {
+                final Person person = (Person) PERSONS.getAcquire(persons, i);
+                if (person != null) {
+                    action.accept(person);
+                }
+            }
+        }
+    }
+
+    @Override
+    public PersonSnapshot snapshot() {
+        final Table[] tables = new Table[segments.length];
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock();
+        }
+        try {
+            for (int i = 0; i < segments.length; i++) {
+                tables[i] = segments[i].share();
+                size += segments[i].size;
+            }
+        } finally {
+            for (Segment segment : segments) {
+                segment.unlock();
+            }
+        }
+        return new Snapshot(tables, size, segmentShift);
+    }
+
+    int segments() {
+        return segments.length;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(int hash) {
+        return segmentShift == 32 ? 0 : hash >>> segmentShift;
+    }
+
+    private static class Table {
+
+        final int[] ids;
+        final Person[] persons;
+
+        Table(int capacity) {
+            ids = new int[capacity];
+            persons = new Person[capacity];
+        }
+
+        Table(Table source) {
+            ids = source.ids.clone();
+            persons = source.persons.clone();
+        }
+
+        Person get(int id, int hash) {
+            final int mask = ids.length - 1;
+            int slot = hash & mask;
+            Person person;
+            while ((person = (Person) PERSONS.getAcquire(persons, slot)) != null) {
+                if (ids[slot] == id) {
+                    return person;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+    }
+
+    private static class Segment extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        volatile Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        volatile int size;
+        /**
+         * {@link #table} is referenced by a snapshot and must be copied before it is changed. Guarded by the lock
+         */
+        private boolean shared;
+
+        Person put(Person person, int hash) {
+            lock();
+            try {
+                return putLocked(person, hash);
+            } finally {
+                unlock();
+            }
+        }
+
+        void putAll(Person[] persons, int[] hashes, int[] order, int from, int to) {
+            if (from == to) {
+                return;
+            }
+            lock();
+            try {
+                ensureCapacityLocked(size + to - from);
+                for (int i = from; i < to; i++) {
+                    putLocked(persons[order[i]], hashes[order[i]]);
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        void ensureCapacity(int expectedSize) {
+            lock();
+            try {
+                ensureCapacityLocked(expectedSize);
+            } finally {
+                unlock();
+            }
+        }
+
+        private void ensureCapacityLocked(int expectedSize) {
+            int capacity = table.ids.length;
+            while (expectedSize > capacity >>> 1) {
+                capacity <<= 1;
+            }
+            if (capacity > table.ids.length) {
+                resize(table, capacity);
+            }
+        }
+
+        private Person putLocked(Person person, int hash) {
+            Table table = this.table;
+            final int id = person.getId();
+            final int mask = table.ids.length - 1;
+            int slot = hash & mask;
+            Person current;
+            while ((current = table.persons[slot]) != null) {
+                if (table.ids[slot] == id) {
+                    PERSONS.setRelease(writable().persons, slot, person);
+                    return current;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size >= (table.ids.length >>> 1)) {
+                table = resize(table, table.ids.length << 1);
+                slot = freeSlot(table, hash);
+            } else {
+                table = writable();
+            }
+            table.ids[slot] = id;
+            PERSONS.setRelease(table.persons, slot, person);
+            size++;
+            return null;
+        }
+
+        Table share() {
+            shared = true;
+            return table;
+        }
+
+        private Table writable() {
+            if (shared) {
+                table = new Table(table);
+                shared = false;
+            }
+            return table;
+        }
+
+        /**
+         * Builds a bigger table and publishes it only when it's complete
+         */
+        private Table resize(Table old, int capacity) {
+            final Table grown = new Table(capacity);
+            for (int i = 0; i < old.persons.length; i++) {
+                if (old.persons[i] != null) {
+                    final int slot = freeSlot(grown, IntPersonStore.hash(old.ids[i]));
+                    grown.ids[slot] = old.ids[i];
+                    grown.persons[slot] = old.persons[i];
+                }
+            }
+            table = grown;
+            shared = false;
+            return grown;
+        }
+
+        private static int freeSlot(Table table, int hash) {
+            final int mask = table.ids.length - 1;
+            int slot = hash & mask;
+            while (table.persons[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+    }
+
+    private static class Snapshot implements PersonSnapshot {
+
+        private final Table[] tables;
+        private final int size;
+        private final int segmentShift;
+
+        Snapshot(Table[] tables, int size, int segmentShift) {
+            this.tables = tables;
+            this.size = size;
+            this.segmentShift = segmentShift;
+        }
+
+        @Override
+        public Person get(int id) {
+            final int hash = IntPersonStore.hash(id);
+            return tables[segmentShift == 32 ? 0 : hash >>> segmentShift].get(id, hash);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Spliterator<Person> spliterator() {
+            return new TablesSpliterator(tables, 0, tables.length, size);
+        }
+
+    }
+
+    /**
+     * Splits by segments first and then inside of the last remaining segment
+     */
+    private static class TablesSpliterator implements Spliterator<Person> {
+
+        private final Table[] tables;
+        private int index;
+        private final int end;
+        private long estimatedSize;
+        private Spliterator<Person> current;
+
+        TablesSpliterator(Table[] tables, int index, int end, long estimatedSize) {
+            this.tables = tables;
+            this.index = index;
+            this.end = end;
+            this.estimatedSize = estimatedSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            while (true) {
+                if (current != null && current.tryAdvance(action)) {
+                    return true;
+                }
+                if (index >= end) {
+                    return false;
+                }
+                current = new PersonArraySpliterator(tables[index].persons, 0);
+                index++;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Person> action) {
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            for (; index < end; index++) {
+                new PersonArraySpliterator(tables[index].persons, 0).forEachRemaining(action);
+            }
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            if (current == null && end - index > 1) {
+                final int mid = (index + end) >>> 1;
+                final long half = estimatedSize >>> 1;
+                final Spliterator<Person> prefix = new TablesSpliterator(tables, index, mid, half);
+                index = mid;
+                estimatedSize -= half;
+                return prefix;
+            }
+            if (current == null && end - index == 1) {
+                current = new PersonArraySpliterator(tables[index].persons, (int) estimatedSize);
+                index++;
+            }
+            return current == null ? null : current.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL | DISTINCT | IMMUTABLE;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see ConcurrentPersonStore
+ */
+class ConcurrentPersonStoreTest {
+
+    private static final int THREADS = 8;
+    private static final int PERSONS_PER_THREAD = 20_000;
+
+    @Test
+    void shouldRoundConcurrencyLevelToPowerOfTwo() {
+        assertThat(new ConcurrentPersonStore(1).segments()).isEqualTo(1);
+        assertThat(new ConcurrentPersonStore(5).segments()).isEqualTo(8);
+        assertThat(new ConcurrentPersonStore(16).segments()).isEqualTo(16);
+    }
+
+    @Test
+    void shouldKeepAllPersons_addedByConcurrentWriters() throws Exception {
+        // given
+        final ConcurrentPersonStore store = new ConcurrentPersonStore(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int first = t * PERSONS_PER_THREAD;
+            writers.add(() -> {
+                for (int id = first; id < first + PERSONS_PER_THREAD; id++) {
+                    store.put(person(id, "Jan", "Kowalski", id));
+                }
+                return null;
+            });
+        }
+        try {
+            // when
+            for (Future<Void> future : executor.invokeAll(writers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        assertThat(store.size()).isEqualTo(THREADS * PERSONS_PER_THREAD);
+        for (int id = 0; id < THREADS * PERSONS_PER_THREAD; id++) {
+            assertThat(store.get(id)
+                            .getSalary()).isEqualTo(id);
+        }
+        assertThat(store.snapshot()
+                        .parallelStream()
+                        .count()).isEqualTo(THREADS * PERSONS_PER_THREAD);
+    }
+
+    @Test
+    void readersShouldNeverSeeTornOrMissingPersons_whileWritersGrowTheTable() throws Exception {
+        // given
+        final ConcurrentPersonStore store = new ConcurrentPersonStore(2);
+        final int existing = 1_000;
+        for (int id = 0; id < existing; id++) {
+            store.put(person(id, "Jan", "Kowalski", id));
+        }
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                for (int id = existing; id < 200_000; id++) {
+                    store.put(person(id, "Jan", "Kowalski", id));
+                }
+                writing.set(false);
+            });
+            final Future<Integer> reader = executor.submit(() -> {
+                int failures = 0;
+                while (writing.get()) {
+                    for (int id = 0; id < existing; id++) {
+                        final Person person = store.get(id);
+                        if (person == null || person.getId() != id || person.getSalary() != id) {
+                            failures++;
+                        }
+                    }
+                }
+                return failures;
+            });
+            // when
+            writer.get();
+            // then
+            assertThat(reader.get()).isZero();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void snapshot_isNotAffectedByLaterChanges() {
+        // given
+        final ConcurrentPersonStore store = new ConcurrentPersonStore(2);
+        store.put(person(1, "Jan", "Kowalski", 100));
+        final PersonSnapshot snapshot = store.snapshot();
+        // when
+        store.put(person(1, "Jan", "Kowalski", 200));
+        store.put(person(2, "Jan", "Kowalski", 300));
+        // then
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.get(1)
+                           .getSalary()).isEqualTo(100);
+        assertThat(snapshot.get(2)).isNull();
+        assertThat(store.get(1)
+                        .getSalary()).isEqualTo(200);
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * RFC 4180 style CSV tokenizer over a {@link ChannelInput}: comma separated fields, optionally quoted with
+ * {@code "}, quotes escaped as {@code ""}, {@code \n} or {@code \r\n} record ends. {@link #next()} only records field
+ * boundaries inside the input buffer, so tokenizing allocates nothing; numbers are parsed from the bytes and only
+ * {@link #getString(int)} creates objects. An unquoted empty field is {@code null}, {@code ""} is an empty string.
+ *
+ * @see PersonCsv
+ */
+final class CsvTokenizer implements Closeable {
+
+    static final byte SEPARATOR = ',';
+    static final byte QUOTE = '"';
+
+    private final ChannelInput input;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private boolean[] quoted = new boolean[8];
+    private int fields;
+    private long line;
+
+    CsvTokenizer(ChannelInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Moves to the next record
+     *
+     * @return {@code false} at the end of the input
+     */
+    boolean next() throws IOException {
+        boolean eof = false;
+        while (true) {
+            final ByteBuffer buffer = input.buffer();
+            if (eof && !buffer.hasRemaining()) {
+                return false;
+            }
+            final int end = buffer.hasRemaining() ? tokenize(buffer, buffer.position(), buffer.limit(), eof) : -1;
+            if (end >= 0) {
+                buffer.position(end);
+                line++;
+                return true;
+            }
+            eof = !input.fill();
+        }
+    }
+
+    int fields() {
+        return fields;
+    }
+
+    /**
+     * @return 1-based number of the current record
+     */
+    long line() {
+        return line;
+    }
+
+    boolean isNull(int field) {
+        return !quoted[check(field)] && starts[field] == ends[field];
+    }
+
+    long getLong(int field) {
+        final ByteBuffer bytes = input.buffer();
+        int i = starts[check(field)];
+        final int end = ends[field];
+        final boolean negative = i < end && bytes.get(i) == '-';
+        if (i < end && (bytes.get(i) == '-' || bytes.get(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw invalidNumber(field);
+        }
+        if (end - i > 18) {
+            // may overflow, rare enough for the allocating parser
+            return Long.parseLong(getString(field));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber(field);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    int getInt(int field) {
+        final long value = getLong(field);
+        if ((int) value != value) {
+            throw invalidNumber(field);
+        }
+        return (int) value;
+    }
+
+    String getString(int field) {
+        if (isNull(field)) {
+            return null;
+        }
+        final String value = input.decode(starts[field], ends[field] - starts[field]);
+        return quoted[field] && value.indexOf(QUOTE) >= 0 ? value.replace("\"\"", "\"") : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * @return offset after the record or {@code -1} when more input is needed
+     */
+    private int tokenize(ByteBuffer bytes, int from, int limit, boolean eof) {
+        fields = 0;
+        int i = from;
+        while (true) {
+            if (fields == starts.length) {
+                starts = Arrays.copyOf(starts, fields << 1);
+                ends = Arrays.copyOf(ends, fields << 1);
+                quoted = Arrays.copyOf(quoted, fields << 1);
+            }
+            if (i < limit && bytes.get(i) == QUOTE) {
+                final int start = ++i;
+                while (true) {
+                    if (i + 1 >= limit && !eof) {
+                        return -1;
+                    }
+                    if (i >= limit) {
+                        throw malformed("unterminated quote");
+                    }
+                    if (bytes.get(i) == QUOTE) {
+                        if (i + 1 < limit && bytes.get(i + 1) == QUOTE) {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                setField(start, i++, true);
+            } else {
+                final int start = i;
+                while (i < limit && bytes.get(i) != SEPARATOR && bytes.get(i) != '\n') {
+                    i++;
+                }
+                if (i == limit && !eof) {
+                    return -1;
+                }
+                final boolean carriageReturn = i > start && bytes.get(i - 1) == '\r'
+                        && (i == limit || bytes.get(i) == '\n');
+                setField(start, carriageReturn ? i - 1 : i, false);
+            }
+            if (i >= limit) {
+                return limit;
+            }
+            switch (bytes.get(i)) {
+            case SEPARATOR:
+                i++;
+                break;
+            case '\n':
+                return i + 1;
+            case '\r':
+                if (i + 1 < limit && bytes.get(i + 1) == '\n') {
+                    return i + 2;
+                }
+                if (i + 1 == limit) {
+                    return eof ? limit : -1;
+                }
+                throw malformed("carriage return after quote");
+            default:
+                throw malformed("character after closing quote");
+            }
+        }
+    }
+
+    private void setField(int start, int end, boolean isQuoted) {
+        starts[fields] = start;
+        ends[fields] = end;
+        quoted[fields] = isQuoted;
+        fields++;
+    }
+
+    private int check(int field) {
+        if (field < 0 || field >= fields) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of " + fields + " in line " + line);
+        }
+        return field;
+    }
+
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("Not a number in line " + line + ", field " + field + ": "
+                + getString(field));
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed CSV in line " + (line + 1) + ": " + reason);
+    }
+
+}
@@ -1,28 +1,370 @@
 package com.campgemini.sample;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 class Database {
 
-    private final Map<Integer, Person> persons = new HashMap<>();
+    static final int LOAD_BATCH_SIZE = 1 << 16;
+    static final int PARALLEL_LOOKUP_THRESHOLD = 1 << 15;
 
+    private final PersonStore persons;
+    private final List<PersonListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Indexes indexes;
+    private volatile PersonJournal journal;
+
+    Database() {
+        this(new IntPersonStore());
+    }
+
+    Database(PersonStore persons) {
+        this.persons = persons;
+    }
+
+    /**
+     * @return database which can be shared between threads
+     * @see ConcurrentPersonStore
+     */
+    static Database concurrent() {
+        return new Database(new ConcurrentPersonStore());
+    }
+
+    /**
+     * Probes the store once. Use {@link #findOrNull(int)} or {@link #ifFound(int, Consumer)} on hot paths to skip the
+     * {@link Optional} allocation
+     */
     public Optional<Person> find(int id) {
-        if (persons.containsKey(id)) {
-            return Optional.of(persons.get(id));
+        return Optional.ofNullable(persons.get(id));
+    }
+
+    /**
+     * Allocation-free variant of {@link #find(int)}
+     *
+     * @return person with given id or {@code null}
+     */
+    public Person findOrNull(int id) {
+        return persons.get(id);
+    }
+
+    /**
+     * Allocation-free variant of {@code find(id).ifPresent(action)}
+     *
+     * @return {@code true} when the person was found and passed to the action
+     */
+    public boolean ifFound(int id, Consumer<? super Person> action) {
+        final Person person = persons.get(id);
+        if (person == null) {
+            return false;
         }
-        return Optional.empty();
+        action.accept(person);
+        return true;
     }
 
+    /**
+     * Batch variant of {@link #findOrNull(int)}. The store may reorder lookups to stay cache friendly (see
+     * {@link IntPersonStore#getAll(int[], Person[], int, int)}); batches of at least
+     * {@link #PARALLEL_LOOKUP_THRESHOLD} ids are split over the common {@link ForkJoinPool}. Must not run concurrently
+     * with {@link #add(Person)} unless the store is thread-safe.
+     *
+     * @return persons at the positions of their ids, {@code null} for missing ids
+     */
+    public Person[] findAll(int[] ids) {
+        final Person[] result = new Person[ids.length];
+        if (ids.length < PARALLEL_LOOKUP_THRESHOLD) {
+            persons.getAll(ids, result, 0, ids.length);
+        } else {
+            ForkJoinPool.commonPool()
+                        .invoke(new BatchLookup(persons, ids, result, 0, ids.length));
+        }
+        return result;
+    }
+
+    /**
+     * @see #findAll(int[])
+     */
+    public Person[] findMany(IntStream ids) {
+        return findAll(ids.toArray());
+    }
+
+    /**
+     * Copies all persons into a new list. Prefer {@link #stream()} or {@link #forEach(Consumer)} which iterate without
+     * copying, or {@link #snapshot()} for a stable view
+     */
     public List<Person> findAll() {
-        return new ArrayList<>(persons.values());
+        final List<Person> all = new ArrayList<>(persons.size());
+        persons.forEach(all::add);
+        return all;
+    }
+
+    /**
+     * @return read-only view of the current content, which is not affected by later {@link #add(Person)} calls
+     */
+    public PersonSnapshot snapshot() {
+        return persons.snapshot();
+    }
+
+    /**
+     * Stream over the current content, without copying it. It must be consumed before the next {@link #add(Person)},
+     * unless the store is thread-safe; {@code snapshot().stream()} stays stable while the database keeps changing.
+     */
+    public Stream<Person> stream() {
+        return StreamSupport.stream(persons.spliterator(), false);
+    }
+
+    /**
+     * Visits the current content without copying it, like {@link #stream()}
+     */
+    public void forEach(Consumer<? super Person> action) {
+        persons.forEach(action);
+    }
+
+    /**
+     * Aggregates salaries of the current content as primitive {@code long}s. In parallel mode the persons are split
+     * over the common fork-join pool and partial statistics are merged. Like {@link #stream()}, it must not run
+     * concurrently with {@link #add(Person)} unless the store is thread-safe.
+     */
+    public SalaryStatistics salaryStatistics(boolean parallel) {
+        return StreamSupport.stream(persons.spliterator(), parallel)
+                            .collect(SalaryStatistics::new, (s, p) -> s.accept(p.getSalary()), SalaryStatistics::combine);
+    }
+
+    /**
+     * Like {@link #salaryStatistics(boolean)}, grouped by a primitive key, for example
+     * {@link GroupedSalaryStatistics#LAST_NAME_INITIAL}
+     */
+    public GroupedSalaryStatistics salaryStatisticsBy(ToIntFunction<Person> key, boolean parallel) {
+        return StreamSupport.stream(persons.spliterator(), parallel)
+                            .collect(GroupedSalaryStatistics::new, (s, p) -> s.accept(key.applyAsInt(p), p.getSalary()),
+                                     GroupedSalaryStatistics::combine);
     }
 
     public void add(Person person) {
-        persons.put(person.getId(), person);
+        final PersonJournal journal = this.journal;
+        if (journal == null) {
+            apply(person);
+        } else {
+            journal.append(person, () -> apply(person));
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #add(Person)}: pre-sizes the store, lets it build in parallel where it can (see
+     * {@link ConcurrentPersonStore#putAll(Collection)}), logs all persons with a single flush and rebuilds the
+     * indexes once at the end. Queries running concurrently may use stale indexes until it returns.
+     */
+    public void addAll(Collection<Person> persons) {
+        store(persons);
+        rebuildIndexes();
+    }
+
+    /**
+     * Bulk loads persons in batches of {@link #LOAD_BATCH_SIZE}; the store is pre-sized when the stream knows its
+     * size
+     *
+     * @see #addAll(Collection)
+     */
+    public void load(Stream<Person> persons) {
+        final Spliterator<Person> spliterator = persons.spliterator();
+        if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+            this.persons.ensureCapacity((int) Math.min(Integer.MAX_VALUE,
+                                                       this.persons.size() + spliterator.estimateSize()));
+        }
+        load(Spliterators.iterator(spliterator));
+    }
+
+    /**
+     * @see #addAll(Collection)
+     */
+    public void load(Iterator<Person> persons) {
+        final List<Person> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        while (persons.hasNext()) {
+            batch.add(persons.next());
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                store(batch);
+                batch.clear();
+            }
+        }
+        store(batch);
+        rebuildIndexes();
+    }
+
+    private void store(Collection<Person> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final PersonJournal journal = this.journal;
+        if (journal == null) {
+            putAll(batch);
+        } else {
+            journal.appendAll(batch, () -> putAll(batch));
+        }
+    }
+
+    private void putAll(Collection<Person> batch) {
+        persons.putAll(batch);
+        if (!listeners.isEmpty()) {
+            batch.forEach(this::notifyListeners);
+        }
+    }
+
+    private void rebuildIndexes() {
+        if (indexes != null) {
+            createIndexes();
+        }
+    }
+
+    /**
+     * Registers a listener notified about persons stored from now on, see {@link PersonSketches}
+     */
+    void addListener(PersonListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Called by {@link PersonJournal#recover(Database)}, from now on every {@link #add(Person)} is logged
+     */
+    void attach(PersonJournal journal) {
+        this.journal = journal;
+    }
+
+    private void apply(Person person) {
+        final Person previous = persons.put(person);
+        final Indexes indexes = this.indexes;
+        if (indexes != null) {
+            indexes.update(previous, person);
+        }
+        notifyListeners(person);
+    }
+
+    private void notifyListeners(Person person) {
+        for (PersonListener listener : listeners) {
+            listener.added(person);
+        }
+    }
+
+    /**
+     * Builds secondary indexes on salary, first name and last name from the current content. Until it is called the
+     * {@code findBy...} queries scan all persons, from now on {@link #add(Person)} keeps the indexes up to date and the
+     * queries use them instead. Bulk loads replace the indexes with new ones.
+     * <p>
+     * The order of the results differs: a scan returns persons in the order of {@link #stream()}, indexed queries by
+     * salary (then id) or by name (then id).
+     * <p>
+     * Call it when no other thread adds persons. Afterwards concurrent {@link #add(Person)} calls for the same id may
+     * leave a stale entry in the indexes
+     *
+     * @return this database
+     */
+    public Database createIndexes() {
+        final Indexes created = new Indexes();
+        persons.forEach(p -> created.update(null, p));
+        indexes = created;
+        return this;
+    }
+
+    public List<Person> findBySalaryGreaterThan(long salary) {
+        final Indexes indexes = this.indexes;
+        if (indexes != null) {
+            return new ArrayList<>(indexes.salary.greaterThan(salary));
+        }
+        return scan(p -> p.getSalary() > salary);
+    }
+
+    /**
+     * @return persons earning at least {@code from} and at most {@code to}
+     */
+    public List<Person> findBySalaryBetween(long from, long to) {
+        final Indexes indexes = this.indexes;
+        if (indexes != null) {
+            return new ArrayList<>(indexes.salary.between(from, to));
+        }
+        return scan(p -> p.getSalary() >= from && p.getSalary() <= to);
+    }
+
+    public List<Person> findByFirstNameStartingWith(String prefix) {
+        return findByNameStartingWith(prefix, Person::getFirstName, i -> i.firstName);
+    }
+
+    public List<Person> findByLastNameStartingWith(String prefix) {
+        return findByNameStartingWith(prefix, Person::getLastName, i -> i.lastName);
+    }
+
+    private List<Person> findByNameStartingWith(String prefix, Function<Person, String> name,
+                                                Function<Indexes, NamePrefixIndex> index) {
+        final Indexes indexes = this.indexes;
+        if (indexes != null) {
+            return index.apply(indexes)
+                        .startingWith(prefix)
+                        .collect(Collectors.toList());
+        }
+        return scan(p -> name.apply(p) != null && name.apply(p)
+                                                      .startsWith(prefix));
+    }
+
+    private List<Person> scan(Predicate<Person> predicate) {
+        return stream().filter(predicate)
+                       .collect(Collectors.toList());
+    }
+
+    private static class BatchLookup extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int CHUNK = PARALLEL_LOOKUP_THRESHOLD / 2;
+
+        private final transient PersonStore persons;
+        private final int[] ids;
+        private final Person[] result;
+        private final int from;
+        private final int to;
+
+        BatchLookup(PersonStore persons, int[] ids, Person[] result, int from, int to) {
+            this.persons = persons;
+            this.ids = ids;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                persons.getAll(ids, result, from, to);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new BatchLookup(persons, ids, result, from, mid), new BatchLookup(persons, ids, result, mid, to));
+        }
+
+    }
+
+    private static class Indexes {
+
+        final SalaryIndex salary = new SalaryIndex();
+        final NamePrefixIndex firstName = new NamePrefixIndex(Person::getFirstName);
+        final NamePrefixIndex lastName = new NamePrefixIndex(Person::getLastName);
+
+        void update(Person previous, Person current) {
+            salary.update(previous, current);
+            firstName.update(previous, current);
+            lastName.update(previous, current);
+        }
+
     }
 
 }
@@ -0,0 +1,122 @@
+package com.campgemini.sample;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares lookups of the original {@code HashMap} based {@link Database#find(int)} (which called {@code containsKey}
+ * and then {@code get}) with single-probe lookups of {@link IntPersonStore}.
+ * <p>
+ * Run with {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main DatabaseFindBenchmark -prof gc}
+ * to see allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseFindBenchmark {
+
+    private static final int LOOKUPS = 1_024;
+
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    /**
+     * Percentage of looked up ids which exist in the database
+     */
+    @Param({ "90" })
+    private int hitRatio;
+
+    private LegacyDatabase legacy;
+    private Database database;
+    private int[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        legacy = new LegacyDatabase();
+        database = new Database();
+        for (int id = 0; id < size; id++) {
+            final Person person = Person.builder()
+                                        .id(id)
+                                        .firstName("Jan")
+                                        .lastName("Kowalski")
+                                        .salary(id)
+                                        .build();
+            legacy.add(person);
+            database.add(person);
+        }
+        final SplittableRandom random = new SplittableRandom(42);
+        ids = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = random.nextInt(100) < hitRatio ? random.nextInt(size) : size + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public void legacyFind(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(legacy.find(id));
+        }
+    }
+
+    @Benchmark
+    public void find(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(database.find(id));
+        }
+    }
+
+    @Benchmark
+    public void findOrNull(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(database.findOrNull(id));
+        }
+    }
+
+    @Benchmark
+    public void ifFound(Blackhole blackhole) {
+        for (int id : ids) {
+            database.ifFound(id, blackhole::consume);
+        }
+    }
+
+    /**
+     * {@link Database} as it was before {@link PersonStore} was introduced
+     */
+    private static class LegacyDatabase {
+
+        private final Map<Integer, Person> persons = new HashMap<>();
+
+        Optional<Person> find(int id) {
+            if (persons.containsKey(id)) {
+                return Optional.of(persons.get(id));
+            }
+            return Optional.empty();
+        }
+
+        void add(Person person) {
+            persons.put(person.getId(), person);
+        }
+
+    }
+
+}
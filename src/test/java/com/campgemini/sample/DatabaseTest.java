@@ -0,0 +1,285 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see Database
+ */
+class DatabaseTest {
+
+    private Database database;
+
+    @BeforeEach
+    void setUp() {
+        database = new Database();
+        database.add(Person.builder()
+                           .id(1)
+                           .firstName("Jan")
+                           .lastName("Kowalski")
+                           .salary(2_000)
+                           .build());
+        database.add(Person.builder()
+                           .id(2)
+                           .firstName("Karolina")
+                           .lastName("Piekna")
+                           .salary(500)
+                           .build());
+    }
+
+    @Test
+    void findOrNull() {
+        assertThat(database.findOrNull(1)
+                           .getFirstName()).isEqualTo("Jan");
+        assertThat(database.findOrNull(10)).isNull();
+    }
+
+    @Test
+    void ifFound_existingPerson() {
+        // given
+        final List<Person> found = new ArrayList<>();
+        // when
+        final boolean result = database.ifFound(2, found::add);
+        // then
+        assertThat(result).isTrue();
+        assertThat(found).extracting(Person::getFirstName)
+                         .containsExactly("Karolina");
+    }
+
+    @Test
+    void ifFound_notExistingPerson() {
+        // given
+        final List<Person> found = new ArrayList<>();
+        // when
+        final boolean result = database.ifFound(10, found::add);
+        // then
+        assertThat(result).isFalse();
+        assertThat(found).isEmpty();
+    }
+
+    @Test
+    void stream() {
+        // when
+        final List<String> names = database.stream()
+                                           .filter(p -> p.getSalary() > 1_000)
+                                           .map(Person::getFirstName)
+                                           .collect(Collectors.toList());
+        // then
+        assertThat(names).containsExactly("Jan");
+    }
+
+    @Test
+    void snapshot_isNotAffectedByLaterChanges() {
+        // given
+        final PersonSnapshot snapshot = database.snapshot();
+        // when
+        database.add(Person.builder()
+                           .id(1)
+                           .firstName("Janusz")
+                           .lastName("Kowalski")
+                           .salary(3_000)
+                           .build());
+        database.add(Person.builder()
+                           .id(3)
+                           .firstName("John")
+                           .lastName("Smith")
+                           .salary(100)
+                           .build());
+        // then
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.get(1)
+                           .getFirstName()).isEqualTo("Jan");
+        assertThat(snapshot.get(3)).isNull();
+        assertThat(snapshot).extracting(Person::getFirstName)
+                            .containsExactlyInAnyOrder("Jan", "Karolina");
+        assertThat(database.findOrNull(1)
+                           .getFirstName()).isEqualTo("Janusz");
+        assertThat(database.stream()).hasSize(3);
+    }
+
+    @Test
+    void snapshot_parallelStream() {
+        // given
+        final Database big = new Database();
+        for (int id = 0; id < 100_000; id++) {
+            big.add(Person.builder()
+                          .id(id)
+                          .salary(id)
+                          .build());
+        }
+        // when
+        final long sum = big.snapshot()
+                            .parallelStream()
+                            .mapToLong(Person::getSalary)
+                            .sum();
+        // then
+        assertThat(sum).isEqualTo(99_999L * 100_000 / 2);
+    }
+
+    @Test
+    void forEach() {
+        // given
+        final List<Person> visited = new ArrayList<>();
+        // when
+        database.forEach(visited::add);
+        // then
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(database.findAll());
+    }
+
+    @Test
+    void findBy_withoutIndexes() {
+        // given
+        database.add(Person.builder()
+                           .id(3)
+                           .firstName("John")
+                           .lastName("Kowalczyk")
+                           .salary(100)
+                           .build());
+        // then
+        assertFindBy(database);
+    }
+
+    @Test
+    void findBy_withIndexes() {
+        // given
+        database.createIndexes();
+        database.add(Person.builder()
+                           .id(3)
+                           .firstName("John")
+                           .lastName("Kowalczyk")
+                           .salary(100)
+                           .build());
+        // then
+        assertFindBy(database);
+    }
+
+    @Test
+    void indexes_shouldFollowReplacedPerson() {
+        // given
+        database.createIndexes();
+        // when
+        database.add(Person.builder()
+                           .id(1)
+                           .firstName("Adam")
+                           .lastName("Kowalski")
+                           .salary(50)
+                           .build());
+        // then
+        assertThat(database.findByFirstNameStartingWith("J")).isEmpty();
+        assertThat(database.findByFirstNameStartingWith("A")).extracting(Person::getId)
+                                                             .containsExactly(1);
+        assertThat(database.findBySalaryGreaterThan(1_000)).isEmpty();
+        assertThat(database.findBySalaryBetween(0, 100)).extracting(Person::getId)
+                                                        .containsExactly(1);
+    }
+
+    private static void assertFindBy(Database database) {
+        assertThat(database.findBySalaryGreaterThan(400)).extracting(Person::getId)
+                                                         .containsExactlyInAnyOrder(1, 2);
+        assertThat(database.findBySalaryGreaterThan(2_000)).isEmpty();
+        assertThat(database.findBySalaryGreaterThan(Long.MAX_VALUE)).isEmpty();
+        assertThat(database.findBySalaryBetween(100, 500)).extracting(Person::getId)
+                                                          .containsExactlyInAnyOrder(2, 3);
+        assertThat(database.findBySalaryBetween(500, 100)).isEmpty();
+        assertThat(database.findByFirstNameStartingWith("J")).extracting(Person::getId)
+                                                             .containsExactlyInAnyOrder(1, 3);
+        assertThat(database.findByFirstNameStartingWith("Ka")).extracting(Person::getId)
+                                                              .containsExactly(2);
+        assertThat(database.findByFirstNameStartingWith("X")).isEmpty();
+        assertThat(database.findByLastNameStartingWith("Kowal")).extracting(Person::getId)
+                                                                .containsExactlyInAnyOrder(1, 3);
+        assertThat(database.findByLastNameStartingWith("")).hasSize(3);
+    }
+
+    @Test
+    void addAll_shouldReplaceAndRebuildIndexes() {
+        // given
+        database.createIndexes();
+        final List<Person> persons = List.of(Person.builder()
+                                                   .id(1)
+                                                   .firstName("Adam")
+                                                   .salary(50)
+                                                   .build(),
+                                             Person.builder()
+                                                   .id(3)
+                                                   .firstName("John")
+                                                   .salary(100)
+                                                   .build());
+        // when
+        database.addAll(persons);
+        // then
+        assertThat(database.findAll()).hasSize(3);
+        assertThat(database.findByFirstNameStartingWith("J")).extracting(Person::getId)
+                                                             .containsExactly(3);
+        assertThat(database.findBySalaryBetween(0, 100)).extracting(Person::getId)
+                                                        .containsExactly(1, 3);
+    }
+
+    @Test
+    void load_shouldStoreEveryPerson_inAllStores() {
+        for (PersonStore store : List.of(new IntPersonStore(), new ColumnarPersonStore(), new OffHeapPersonStore(),
+                                         new ConcurrentPersonStore(4), new HashMapPersonStore())) {
+            // given
+            final Database loaded = new Database(store);
+            // when
+            loaded.load(IntStream.range(0, 100_000)
+                                 .mapToObj(id -> Person.builder()
+                                                       .id(id)
+                                                       .salary(id)
+                                                       .build()));
+            loaded.load(List.of(Person.builder()
+                                      .id(0)
+                                      .salary(-1)
+                                      .build())
+                            .iterator());
+            // then
+            assertThat(store.size()).as(store.getClass()
+                                             .getSimpleName())
+                                    .isEqualTo(100_000);
+            assertThat(loaded.findOrNull(0)
+                             .getSalary()).isEqualTo(-1);
+            assertThat(loaded.findOrNull(99_999)
+                             .getSalary()).isEqualTo(99_999);
+        }
+    }
+
+    @Test
+    void findAll_byIds() {
+        // when
+        final Person[] found = database.findAll(new int[] { 2, 10, 1, 2 });
+        // then
+        assertThat(found).extracting(p -> p == null ? null : p.getFirstName())
+                         .containsExactly("Karolina", null, "Jan", "Karolina");
+        assertThat(database.findAll(new int[0])).isEmpty();
+    }
+
+    @Test
+    void findMany_largeBatch() {
+        // given
+        final Database big = new Database();
+        big.load(IntStream.range(0, 200_000)
+                          .mapToObj(id -> Person.builder()
+                                                .id(id)
+                                                .salary(id)
+                                                .build()));
+        // when
+        final Person[] found = big.findMany(IntStream.range(0, Database.PARALLEL_LOOKUP_THRESHOLD * 4)
+                                                     .map(i -> i * 3));
+        // then
+        for (int i = 0; i < found.length; i++) {
+            if (i * 3 < 200_000) {
+                assertThat(found[i].getId()).isEqualTo(i * 3);
+            } else {
+                assertThat(found[i]).isNull();
+            }
+        }
+    }
+
+}
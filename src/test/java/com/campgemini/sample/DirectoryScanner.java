@@ -0,0 +1,223 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.Builder;
+
+/**
+ * Parallel replacement of {@code Files.find} / {@code Files.walk} with a file name filter, see
+ * {@link FilesTest#find_existingPath()}. Every directory is listed by its own fork-join task, so subdirectories are
+ * read in parallel; matching files (anything but directories, symbolic links are not followed) are handed to the
+ * caller through a bounded queue, which blocks the scan when the caller is slower and keeps memory flat.
+ * <p>
+ * The order of the results is not defined. The returned stream must be closed, closing it early cancels the scan.
+ */
+class DirectoryScanner {
+
+    static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final FileNameFilter filter;
+    private final int maxDepth;
+    private final int queueCapacity;
+    private final int parallelism;
+
+    /**
+     * @param filter        selects files by name, all files by default
+     * @param maxDepth      like {@code Files.walk}: 1 lists only the root directory, unlimited by default
+     * @param queueCapacity number of results buffered for the caller, {@link #DEFAULT_QUEUE_CAPACITY} by default
+     * @param parallelism   number of threads listing directories, twice the number of processors by default as they
+     *                      mostly wait for the disk
+     */
+    @Builder
+    private DirectoryScanner(FileNameFilter filter, Integer maxDepth, int queueCapacity, int parallelism) {
+        if (maxDepth != null && maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+        }
+        this.filter = filter == null ? FileNameFilter.all() : filter;
+        this.maxDepth = maxDepth == null ? Integer.MAX_VALUE : maxDepth;
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : DEFAULT_QUEUE_CAPACITY;
+        this.parallelism = parallelism > 0 ? parallelism
+                : 2 * Runtime.getRuntime()
+                             .availableProcessors();
+    }
+
+    /**
+     * @throws IOException when the root cannot be read, errors found later are thrown from the stream as
+     *                     {@link UncheckedIOException}, unchecked exceptions of the scan (e.g. of the filter) as they
+     *                     are
+     */
+    Stream<Path> scan(Path root) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        final Scan scan = new Scan();
+        scan.start(root, attributes);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scan, Spliterator.NONNULL), false)
+                            .onClose(scan::cancel);
+    }
+
+    private class Scan implements Iterator<Path> {
+
+        private final Path end = Path.of("");
+        private final BlockingQueue<Path> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+        private Path next;
+        private boolean finished;
+
+        void start(Path root, BasicFileAttributes attributes) {
+            pool.execute(ForkJoinTask.adapt(() -> {
+                try {
+                    if (!attributes.isDirectory()) {
+                        if (filter.accept(root.getFileName())) {
+                            emit(root);
+                        }
+                    } else if (maxDepth > 0) {
+                        new DirectoryTask(root, 0).invoke();
+                    }
+                } catch (RuntimeException | Error e) {
+                    fail(e);
+                } finally {
+                    emit(end);
+                    pool.shutdown();
+                }
+            }));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                          .interrupt();
+                    cancel();
+                    throw new IllegalStateException("Interrupted while scanning", e);
+                }
+                if (next == end) {
+                    next = null;
+                    finished = true;
+                    final Throwable e = failure.get();
+                    if (e instanceof IOException) {
+                        throw new UncheckedIOException((IOException) e);
+                    }
+                    if (e instanceof RuntimeException) {
+                        throw (RuntimeException) e;
+                    }
+                    if (e instanceof Error) {
+                        throw (Error) e;
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Path path = next;
+            next = null;
+            return path;
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+            pool.shutdown();
+        }
+
+        void fail(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                cancelled = true;
+            }
+        }
+
+        /**
+         * Blocks while the queue is full; the end marker is always delivered, other paths are dropped once cancelled
+         */
+        void emit(Path path) {
+            try {
+                while (!queue.offer(path, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        if (path != end) {
+                            return;
+                        }
+                        queue.clear();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+
+        private class DirectoryTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final transient Path directory;
+            private final int depth;
+
+            DirectoryTask(Path directory, int depth) {
+                this.directory = directory;
+                this.depth = depth;
+            }
+
+            @Override
+            protected void compute() {
+                final List<DirectoryTask> subdirectories = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                    for (Path entry : entries) {
+                        if (cancelled) {
+                            return;
+                        }
+                        final BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+                                                                                    LinkOption.NOFOLLOW_LINKS);
+                        if (!attributes.isDirectory()) {
+                            if (filter.accept(entry.getFileName())) {
+                                emit(entry);
+                            }
+                        } else if (depth + 2 <= maxDepth) {
+                            subdirectories.add(new DirectoryTask(entry, depth + 1));
+                        }
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                } catch (DirectoryIteratorException e) {
+                    fail(e.getCause());
+                    return;
+                }
+                invokeAll(subdirectories);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see DirectoryScanner
+ * @see FileNameFilter
+ */
+class DirectoryScannerTest {
+
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            final Path directory = Files.createDirectories(root.resolve("dir" + i)
+                                                               .resolve("sub"));
+            for (int j = 0; j < 50; j++) {
+                Files.createFile(directory.resolve("file" + j + (j % 2 == 0 ? ".txt" : ".csv")));
+                Files.createFile(directory.getParent()
+                                          .resolve("top" + j + ".txt"));
+            }
+        }
+        Files.createFile(root.resolve("root.properties"));
+    }
+
+    @Test
+    void scan_sameAsFilesWalk() throws IOException {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .filter(FileNameFilter.suffix(".txt"))
+                                                         .build();
+        // when
+        final Set<Path> files = scan(scanner, root);
+        // then
+        try (Stream<Path> walk = Files.walk(root)) {
+            assertThat(files).hasSize(5 * 75)
+                             .isEqualTo(walk.filter(p -> p.toString()
+                                                          .endsWith(".txt"))
+                                            .collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void scan_globAndMaxDepth() throws IOException {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .filter(FileNameFilter.glob("*.{txt,properties}"))
+                                                         .maxDepth(2)
+                                                         .build();
+        // when
+        final Set<Path> files = scan(scanner, root);
+        // then
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            assertThat(files).hasSize(5 * 50 + 1)
+                             .isEqualTo(walk.filter(p -> !Files.isDirectory(p))
+                                            .filter(p -> p.toString()
+                                                          .endsWith(".txt")
+                                                    || p.toString()
+                                                        .endsWith(".properties"))
+                                            .collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void scan_resources() throws IOException {
+        // given: like FilesTest.find_existingPath
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .filter(FileNameFilter.suffix(".properties"))
+                                                         .maxDepth(2)
+                                                         .build();
+        // when
+        final Set<Path> files = scan(scanner, Paths.get("src/test/resources"));
+        // then
+        assertThat(files).containsExactly(Paths.get("src/test/resources/application.properties"));
+    }
+
+    @Test
+    void scan_tinyQueueBlocksUntilConsumed() throws IOException {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .queueCapacity(1)
+                                                         .parallelism(4)
+                                                         .build();
+        // when
+        final Set<Path> files = scan(scanner, root);
+        // then
+        assertThat(files).hasSize(5 * 100 + 1);
+    }
+
+    @Test
+    void scan_closedEarly() throws IOException {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .queueCapacity(1)
+                                                         .build();
+        // when
+        final List<Path> first;
+        try (Stream<Path> files = scanner.scan(root)) {
+            first = files.limit(3)
+                         .collect(Collectors.toList());
+        }
+        // then
+        assertThat(first).hasSize(3);
+    }
+
+    @Test
+    void scan_nonExistingRoot() {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .build();
+        // then
+        assertThrows(NoSuchFileException.class, () -> scanner.scan(root.resolve("missing")));
+    }
+
+    @Test
+    void scan_filterFailure_isThrownFromStream() {
+        // given
+        final DirectoryScanner scanner = DirectoryScanner.builder()
+                                                         .filter(fileName -> {
+                                                             if (fileName.toString()
+                                                                         .equals("file7.csv")) {
+                                                                 throw new IllegalStateException("bad filter");
+                                                             }
+                                                             return true;
+                                                         })
+                                                         .build();
+        // then
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> scan(scanner, root));
+        assertThat(ex).hasMessage("bad filter");
+    }
+
+    private static Set<Path> scan(DirectoryScanner scanner, Path root) throws IOException {
+        try (Stream<Path> files = scanner.scan(root)) {
+            return files.collect(Collectors.toSet());
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.campgemini.sample;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+/**
+ * Filter of {@link DirectoryScanner}: gets only the file name, so the parent path is never turned into a
+ * {@code String}
+ */
+@FunctionalInterface
+interface FileNameFilter {
+
+    boolean accept(Path fileName);
+
+    static FileNameFilter all() {
+        return fileName -> true;
+    }
+
+    /**
+     * Replacement of {@code p.toString().endsWith(suffix)}: compares the end of the file name only
+     */
+    static FileNameFilter suffix(String suffix) {
+        return fileName -> {
+            final String name = fileName.toString();
+            return name.regionMatches(name.length() - suffix.length(), suffix, 0, suffix.length());
+        };
+    }
+
+    /**
+     * @param glob pattern of {@link java.nio.file.FileSystem#getPathMatcher(String)} syntax, e.g. {@code *.{txt,csv}}
+     */
+    static FileNameFilter glob(String glob) {
+        final PathMatcher matcher = FileSystems.getDefault()
+                                               .getPathMatcher("glob:" + glob);
+        return matcher::matches;
+    }
+
+}
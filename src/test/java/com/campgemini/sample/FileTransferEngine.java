@@ -0,0 +1,333 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch version of the {@code Files.copy} / {@code Files.move} calls of {@link FilesTest}: files of a batch are
+ * transferred concurrently by a fixed number of threads.
+ * <ul>
+ * <li>copy - {@link FileChannel#transferTo} (zero-copy where the OS supports it) into a temporary sibling, renamed to
+ * the target when complete, so a target is never seen half written</li>
+ * <li>move - atomic rename when source and target are on the same file system, copy and delete otherwise</li>
+ * <li>existing targets - replaced atomically with {@code replaceExisting}, otherwise kept: files are published by a
+ * hard link, which fails on a target created meanwhile (a plain, not atomic, move where links are not supported)</li>
+ * <li>verification - optional CRC32C comparison of source and copy</li>
+ * </ul>
+ * A failed file, also by an unchecked exception, does not stop the batch, it is reported in
+ * {@link Report#getFailures()}.
+ */
+@Slf4j
+class FileTransferEngine implements Closeable {
+
+    static final long TRANSFER_CHUNK_SIZE = 1 << 23;
+    private static final int CHECKSUM_BUFFER_SIZE = 1 << 16;
+
+    private final ExecutorService workers;
+    private final boolean replaceExisting;
+    private final boolean copyAttributes;
+    private final boolean verifyChecksum;
+
+    private final LongAdder totalFiles = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder totalFailures = new LongAdder();
+
+    /**
+     * @param threads         number of files transferred at once, the number of processors by default
+     * @param replaceExisting like {@link StandardCopyOption#REPLACE_EXISTING}
+     * @param copyAttributes  copies the modification time and POSIX permissions, like
+     *                        {@link StandardCopyOption#COPY_ATTRIBUTES}
+     * @param verifyChecksum  reads source and copy again and compares their CRC32C
+     */
+    @Builder
+    private FileTransferEngine(int threads, boolean replaceExisting, boolean copyAttributes, boolean verifyChecksum) {
+        final int poolSize = threads > 0 ? threads
+                : Runtime.getRuntime()
+                         .availableProcessors();
+        final AtomicInteger number = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolSize, r -> {
+            final Thread thread = new Thread(r, "file-transfer-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.replaceExisting = replaceExisting;
+        this.copyAttributes = copyAttributes;
+        this.verifyChecksum = verifyChecksum;
+    }
+
+    Job copyAll(Collection<Transfer> transfers) {
+        return submit(transfers, false);
+    }
+
+    Job moveAll(Collection<Transfer> transfers) {
+        return submit(transfers, true);
+    }
+
+    /**
+     * @return totals of all batches since the engine was created
+     */
+    Report totals() {
+        return new Report(totalFiles.intValue(), totalFailures.intValue(), totalBytes.sum(), Duration.ZERO,
+                          Collections.emptyMap());
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("File transfers still running after close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private Job submit(Collection<Transfer> transfers, boolean move) {
+        final Job job = new Job(transfers.size());
+        final List<CompletableFuture<Void>> files = new ArrayList<>(transfers.size());
+        for (Transfer transfer : transfers) {
+            files.add(CompletableFuture.runAsync(() -> job.run(transfer, move), workers));
+        }
+        CompletableFuture.allOf(files.toArray(new CompletableFuture<?>[0]))
+                         .whenComplete((ignored, e) -> job.complete());
+        return job;
+    }
+
+    private void copy(Path source, Path target, LongAdder transferred) throws IOException {
+        // fails early only, the target may still be created until it is published
+        if (!replaceExisting && Files.exists(target)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        final Path temporary = target.resolveSibling(target.getFileName() + ".part-" + ThreadLocalRandom.current()
+                                                                                                       .nextInt(Integer.MAX_VALUE));
+        try {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                                                    StandardOpenOption.WRITE)) {
+                final long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    final long count = in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), out);
+                    if (count <= 0) {
+                        throw new IOException("Source shrank while copying: " + source);
+                    }
+                    position += count;
+                    transferred.add(count);
+                }
+            }
+            if (verifyChecksum && checksum(source) != checksum(temporary)) {
+                throw new IOException("Checksum of " + target + " differs from " + source);
+            }
+            if (copyAttributes) {
+                copyAttributes(source, temporary);
+            }
+            if (replaceExisting) {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else if (!link(temporary, target)) {
+                Files.move(temporary, target);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void move(Path source, Path target, LongAdder transferred) throws IOException {
+        final long size = Files.size(source);
+        boolean renamed;
+        try {
+            if (replaceExisting) {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                renamed = true;
+            } else {
+                renamed = link(source, target);
+            }
+        } catch (AtomicMoveNotSupportedException e) {
+            renamed = false;
+        }
+        if (renamed) {
+            transferred.add(size);
+        } else {
+            log.debug("Cannot rename {}, copying it", source);
+            copy(source, target, transferred);
+            Files.delete(source);
+        }
+    }
+
+    /**
+     * Renames the file to the target by a hard link and deleting the file, the link fails atomically when the target
+     * exists
+     *
+     * @return {@code false} when the file system cannot link them (no hard links, other file system), the file is kept
+     */
+    private static boolean link(Path file, Path target) throws IOException {
+        try {
+            Files.createLink(target, file);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            log.debug("Cannot link {} to {}: {}", target, file, e.toString());
+            return false;
+        }
+        Files.delete(file);
+        return true;
+    }
+
+    private static void copyAttributes(Path source, Path target) throws IOException {
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+        final PosixFileAttributeView posix = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (posix != null) {
+            posix.setPermissions(Files.readAttributes(source, PosixFileAttributes.class)
+                                      .permissions());
+        }
+    }
+
+    static long checksum(Path file) throws IOException {
+        final CRC32C crc = new CRC32C();
+        try (ByteBufferPool.Lease lease = ByteBufferPool.shared()
+                                                        .lease(CHECKSUM_BUFFER_SIZE);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = lease.buffer();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Value(staticConstructor = "of")
+    static class Transfer {
+        Path source;
+        Path target;
+    }
+
+    /**
+     * Outcome of a batch
+     */
+    @Value
+    static class Report {
+
+        int files;
+        int failed;
+        long bytes;
+        Duration elapsed;
+        Map<Path, Exception> failures;
+
+        double bytesPerSecond() {
+            return elapsed.isZero() ? 0 : bytes * 1e9 / elapsed.toNanos();
+        }
+
+    }
+
+    /**
+     * Point-in-time progress of a running batch
+     */
+    @Value
+    static class Progress {
+
+        int files;
+        int completed;
+        int failed;
+        long bytes;
+        Duration elapsed;
+
+        /**
+         * @return finished files, in range [0, 1]
+         */
+        double fraction() {
+            return files == 0 ? 1 : (double) (completed + failed) / files;
+        }
+
+        double bytesPerSecond() {
+            return elapsed.isZero() ? 0 : bytes * 1e9 / elapsed.toNanos();
+        }
+
+    }
+
+    /**
+     * Running batch
+     */
+    final class Job {
+
+        private final int files;
+        private final long startNanos = System.nanoTime();
+        private final LongAdder transferred = new LongAdder();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final Map<Path, Exception> failures = new ConcurrentHashMap<>();
+        private final CompletableFuture<Report> report = new CompletableFuture<>();
+
+        private Job(int files) {
+            this.files = files;
+        }
+
+        /**
+         * @return report completed when all files were transferred or failed
+         */
+        CompletableFuture<Report> completion() {
+            return report;
+        }
+
+        Progress progress() {
+            return new Progress(files, completed.get(), failures.size(), transferred.sum(),
+                                Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        private void run(Transfer transfer, boolean move) {
+            try {
+                if (move) {
+                    move(transfer.getSource(), transfer.getTarget(), transferred);
+                } else {
+                    copy(transfer.getSource(), transfer.getTarget(), transferred);
+                }
+                completed.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot transfer {} to {}: {}", transfer.getSource(), transfer.getTarget(), e.toString());
+                failures.put(transfer.getSource(), e);
+                totalFailures.increment();
+            }
+            totalFiles.increment();
+        }
+
+        private void complete() {
+            final long bytes = transferred.sum();
+            totalBytes.add(bytes);
+            report.complete(new Report(files, failures.size(), bytes, Duration.ofNanos(System.nanoTime() - startNanos),
+                                       Map.copyOf(failures)));
+        }
+
+    }
+
+}
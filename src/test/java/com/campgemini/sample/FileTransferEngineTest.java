@@ -0,0 +1,197 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see FileTransferEngine
+ */
+class FileTransferEngineTest {
+
+    private static final int FILES = 20;
+
+    @TempDir
+    Path directory;
+
+    private Path source;
+    private Path target;
+    private List<FileTransferEngine.Transfer> transfers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = Files.createDirectory(directory.resolve("source"));
+        target = Files.createDirectory(directory.resolve("target"));
+        transfers = new ArrayList<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < FILES; i++) {
+            final byte[] content = new byte[i * 10_000];
+            random.nextBytes(content);
+            final Path file = Files.write(source.resolve("file" + i), content);
+            transfers.add(FileTransferEngine.Transfer.of(file, target.resolve("file" + i)));
+        }
+    }
+
+    @Test
+    void copyAll_verifiedCopies() throws Exception {
+        // given
+        final long bytes = totalSize();
+        try (FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .threads(4)
+                                                           .verifyChecksum(true)
+                                                           .build()) {
+            // when
+            final FileTransferEngine.Job job = engine.copyAll(transfers);
+            final FileTransferEngine.Report report = job.completion()
+                                                        .get();
+            // then
+            assertThat(report.getFiles()).isEqualTo(FILES);
+            assertThat(report.getFailed()).isZero();
+            assertThat(report.getBytes()).isEqualTo(bytes);
+            assertThat(report.bytesPerSecond()).isPositive();
+            assertThat(job.progress()
+                          .fraction()).isEqualTo(1);
+            for (FileTransferEngine.Transfer transfer : transfers) {
+                assertThat(Files.readAllBytes(transfer.getTarget())).isEqualTo(Files.readAllBytes(transfer.getSource()));
+                assertThat(FileTransferEngine.checksum(transfer.getTarget())).isEqualTo(FileTransferEngine.checksum(transfer.getSource()));
+            }
+            assertThat(engine.totals()
+                             .getBytes()).isEqualTo(bytes);
+            try (Stream<Path> files = Files.list(target)) {
+                assertThat(files.count()).as("no temporary files left")
+                                         .isEqualTo(FILES);
+            }
+        }
+    }
+
+    @Test
+    void copyAll_existingTarget() throws Exception {
+        // given
+        final Path existing = Files.writeString(target.resolve("file1"), "old");
+        try (FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .build()) {
+            // when
+            final FileTransferEngine.Report report = engine.copyAll(transfers)
+                                                           .completion()
+                                                           .get();
+            // then
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getFailures()
+                             .get(source.resolve("file1"))).isInstanceOf(FileAlreadyExistsException.class);
+            assertThat(Files.readString(existing)).isEqualTo("old");
+        }
+    }
+
+    @Test
+    void copyAll_replaceExistingAndCopyAttributes() throws Exception {
+        // given
+        Files.writeString(target.resolve("file1"), "old");
+        final FileTime modified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(source.resolve("file1"), modified);
+        try (FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .replaceExisting(true)
+                                                           .copyAttributes(true)
+                                                           .build()) {
+            // when
+            final FileTransferEngine.Report report = engine.copyAll(transfers)
+                                                           .completion()
+                                                           .get();
+            // then
+            assertThat(report.getFailed()).isZero();
+            assertThat(Files.readAllBytes(target.resolve("file1"))).isEqualTo(Files.readAllBytes(source.resolve("file1")));
+            assertThat(Files.getLastModifiedTime(target.resolve("file1"))).isEqualTo(modified);
+        }
+    }
+
+    @Test
+    void copyAll_uncheckedException_isReported() throws Exception {
+        // given
+        final URI zipFile = URI.create("jar:" + directory.resolve("source.zip")
+                                                         .toUri());
+        try (FileSystem zip = FileSystems.newFileSystem(zipFile, Map.of("create", "true"));
+             FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .copyAttributes(true)
+                                                           .build()) {
+            // no POSIX attributes in a zip file
+            final Path zipped = Files.writeString(zip.getPath("zipped.txt"), "zipped");
+            transfers.add(FileTransferEngine.Transfer.of(zipped, target.resolve("zipped.txt")));
+            // when
+            final FileTransferEngine.Report report = engine.copyAll(transfers)
+                                                           .completion()
+                                                           .get();
+            // then
+            assertThat(report.getFiles()).isEqualTo(FILES + 1);
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getFailures()
+                             .get(zipped)).isInstanceOf(UnsupportedOperationException.class);
+            assertThat(engine.totals()
+                             .getFiles()).isEqualTo(FILES + 1);
+        }
+    }
+
+    @Test
+    void moveAll_existingTarget() throws Exception {
+        // given
+        final Path existing = Files.writeString(target.resolve("file1"), "old");
+        try (FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .build()) {
+            // when
+            final FileTransferEngine.Report report = engine.moveAll(transfers)
+                                                           .completion()
+                                                           .get();
+            // then
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getFailures()
+                             .get(source.resolve("file1"))).isInstanceOf(FileAlreadyExistsException.class);
+            assertThat(Files.readString(existing)).isEqualTo("old");
+            assertThat(source.resolve("file1")).exists();
+            assertThat(source.resolve("file2")).doesNotExist();
+        }
+    }
+
+    @Test
+    void moveAll_renamesWithinFileSystem() throws IOException, InterruptedException, ExecutionException {
+        // given
+        final long bytes = totalSize();
+        try (FileTransferEngine engine = FileTransferEngine.builder()
+                                                           .build()) {
+            // when
+            final FileTransferEngine.Report report = engine.moveAll(transfers)
+                                                           .completion()
+                                                           .get();
+            // then
+            assertThat(report.getFailed()).isZero();
+            assertThat(report.getBytes()).isEqualTo(bytes);
+            for (FileTransferEngine.Transfer transfer : transfers) {
+                assertThat(transfer.getSource()).doesNotExist();
+                assertThat(transfer.getTarget()).exists();
+            }
+        }
+    }
+
+    private long totalSize() throws IOException {
+        long bytes = 0;
+        for (FileTransferEngine.Transfer transfer : transfers) {
+            bytes += Files.size(transfer.getSource());
+        }
+        return bytes;
+    }
+
+}
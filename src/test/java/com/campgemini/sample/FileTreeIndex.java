@@ -0,0 +1,558 @@
+package com.campgemini.sample;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of a directory tree for repeated {@code Files.find} style queries, see
+ * {@link FilesTest#find_existingPath()}: a trie of path names with size and modification time of every entry plus a
+ * map from file extension to files. Queries by extension, directory (prefix) and depth only touch the index.
+ * <p>
+ * {@link #watch()} keeps the index current through a {@link WatchService}, events are applied by a daemon thread
+ * shortly after the change. {@link #save(Path)} and {@link #load(Path, Path)} persist the index; on load only
+ * directories whose modification time changed are listed again, so changes of file content made while the index was
+ * not watching are not noticed.
+ * <p>
+ * Symbolic links are indexed but not followed.
+ */
+@Slf4j
+class FileTreeIndex implements Closeable {
+
+    private static final int MAGIC = 0x46544931;
+
+    private final Path root;
+    private final Node rootNode;
+    private final Map<String, Set<Node>> byExtension = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, WatchKey> watchKeys = new HashMap<>();
+    private int size;
+    private volatile WatchService watcher;
+
+    private FileTreeIndex(Path root) {
+        this.root = root;
+        this.rootNode = new Node(null, root, true, 0, 0);
+    }
+
+    /**
+     * Walks the whole tree once
+     */
+    static FileTreeIndex build(Path root) throws IOException {
+        final FileTreeIndex index = new FileTreeIndex(root.toAbsolutePath()
+                                                          .normalize());
+        index.write(() -> index.scan(index.root));
+        return index;
+    }
+
+    /**
+     * Reads an index stored by {@link #save(Path)} and lists again the directories changed since then
+     */
+    static FileTreeIndex load(Path root, Path file) throws IOException {
+        final FileTreeIndex index = new FileTreeIndex(root.toAbsolutePath()
+                                                          .normalize());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || !index.root.toString()
+                                                    .equals(in.readUTF())) {
+                throw new IOException("Not an index of " + index.root + ": " + file);
+            }
+            index.rootNode.lastModified = in.readLong();
+            final int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                final Path path = index.root.resolve(in.readUTF());
+                final boolean directory = in.readBoolean();
+                index.add(path, directory, in.readLong(), in.readLong());
+            }
+        }
+        index.write(index::refreshChangedDirectories);
+        return index;
+    }
+
+    /**
+     * Writes to a temporary file which atomically replaces {@code file}
+     */
+    void save(Path file) throws IOException {
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        lock.readLock()
+            .lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(root.toString());
+            out.writeLong(rootNode.lastModified);
+            out.writeInt(size);
+            // parents are written before their children
+            final Deque<Node> nodes = new ArrayDeque<>(rootNode.children.values());
+            while (!nodes.isEmpty()) {
+                final Node node = nodes.poll();
+                out.writeUTF(root.relativize(node.path)
+                                 .toString());
+                out.writeBoolean(node.directory);
+                out.writeLong(node.size);
+                out.writeLong(node.lastModified);
+                if (node.directory) {
+                    nodes.addAll(node.children.values());
+                }
+            }
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Starts applying file system events to the index
+     *
+     * @return this index
+     */
+    FileTreeIndex watch() throws IOException {
+        if (watcher != null) {
+            return this;
+        }
+        watcher = root.getFileSystem()
+                      .newWatchService();
+        write(() -> {
+            final Deque<Node> directories = new ArrayDeque<>(List.of(rootNode));
+            while (!directories.isEmpty()) {
+                final Node directory = directories.poll();
+                register(directory.path);
+                for (Node child : directory.children.values()) {
+                    if (child.directory) {
+                        directories.add(child);
+                    }
+                }
+            }
+        });
+        final Thread thread = new Thread(this::processEvents, "file-tree-index-" + root.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * @param extension with or without the leading dot, e.g. {@code properties}
+     */
+    List<Path> findByExtension(String extension) {
+        final String key = extension.startsWith(".") ? extension.substring(1) : extension;
+        lock.readLock()
+            .lock();
+        try {
+            final Set<Node> files = byExtension.getOrDefault(key, Collections.emptySet());
+            final List<Path> paths = new ArrayList<>(files.size());
+            for (Node file : files) {
+                paths.add(file.path);
+            }
+            return paths;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * @return all files and directories below the directory
+     */
+    List<Path> findByPrefix(Path directory) {
+        return find(directory, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@code Files.walk(directory, maxDepth)} without the directory itself
+     */
+    List<Path> find(Path directory, int maxDepth) {
+        lock.readLock()
+            .lock();
+        try {
+            final Node start = lookup(directory);
+            final List<Path> paths = new ArrayList<>();
+            if (start != null && start.directory) {
+                collect(start, 1, maxDepth, paths);
+            }
+            return paths;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    Optional<Entry> attributes(Path path) {
+        lock.readLock()
+            .lock();
+        try {
+            final Node node = lookup(path);
+            return node == null ? Optional.empty()
+                    : Optional.of(new Entry(node.path, node.directory, node.size, node.lastModified));
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed files and directories, without the root
+     */
+    int size() {
+        lock.readLock()
+            .lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        final WatchService watcher = this.watcher;
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                final WatchKey key = watcher.take();
+                try {
+                    write(() -> apply(key));
+                } catch (IOException e) {
+                    log.warn("Cannot update index of {}", root, e);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", root);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private void apply(WatchKey key) throws IOException {
+        final Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == OVERFLOW) {
+                final Node node = lookup(directory);
+                if (node != null) {
+                    refresh(node);
+                }
+                continue;
+            }
+            final Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                remove(lookup(path));
+            } else {
+                update(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+            if (directory != null) {
+                watchKeys.remove(directory, key);
+            }
+        }
+    }
+
+    /**
+     * Indexes a created or modified path, or drops it when it no longer exists
+     */
+    private void update(Path path) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            remove(lookup(path));
+            return;
+        }
+        Node existing = lookup(path);
+        if (existing != null && existing.directory != attributes.isDirectory()) {
+            remove(existing);
+            existing = null;
+        }
+        if (attributes.isDirectory() && existing == null) {
+            scan(path);
+        } else {
+            add(path, attributes);
+        }
+    }
+
+    private void refreshChangedDirectories() throws IOException {
+        final Deque<Node> directories = new ArrayDeque<>(List.of(rootNode));
+        final Deque<Long> loadedTimes = new ArrayDeque<>(List.of(rootNode.lastModified));
+        while (!directories.isEmpty()) {
+            final Node directory = directories.poll();
+            final long loadedTime = loadedTimes.poll();
+            // taken before the refresh, which sets the current times of the subdirectories
+            final Map<Node, Long> subdirectories = new HashMap<>();
+            for (Node child : directory.children.values()) {
+                if (child.directory) {
+                    subdirectories.put(child, child.lastModified);
+                }
+            }
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(directory.path, BasicFileAttributes.class,
+                                                  LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                remove(directory);
+                continue;
+            }
+            if (attributes.lastModifiedTime()
+                          .toMillis() != loadedTime) {
+                directory.lastModified = attributes.lastModifiedTime()
+                                                   .toMillis();
+                refresh(directory);
+            }
+            // directories new since the save were scanned by the refresh
+            for (Map.Entry<Node, Long> subdirectory : subdirectories.entrySet()) {
+                final Node child = subdirectory.getKey();
+                if (directory.children.get(child.name) == child) {
+                    directories.add(child);
+                    loadedTimes.add(subdirectory.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the directory again: drops missing entries, indexes new ones
+     */
+    private void refresh(Node directory) throws IOException {
+        final Set<String> present = new HashSet<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory.path)) {
+            for (Path entry : entries) {
+                present.add(entry.getFileName()
+                                 .toString());
+                update(entry);
+            }
+        }
+        for (Node child : new ArrayList<>(directory.children.values())) {
+            if (!present.contains(child.name)) {
+                remove(child);
+            }
+        }
+    }
+
+    /**
+     * Indexes the tree below {@code start} (and {@code start} itself), registering directories when watching
+     */
+    private void scan(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                    throws IOException {
+                register(directory);
+                add(directory, attributes);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                add(file, attributes);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("Cannot index {}", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    private void register(Path directory) throws IOException {
+        final WatchService watcher = this.watcher;
+        if (watcher != null) {
+            final WatchKey key = directory.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            watchedDirectories.put(key, directory);
+            watchKeys.put(directory, key);
+        }
+    }
+
+    private void add(Path path, BasicFileAttributes attributes) {
+        add(path, attributes.isDirectory(), attributes.size(), attributes.lastModifiedTime()
+                                                                         .toMillis());
+    }
+
+    private void add(Path path, boolean directory, long fileSize, long lastModified) {
+        if (path.equals(root)) {
+            rootNode.lastModified = lastModified;
+            return;
+        }
+        final Node parent = lookup(path.getParent());
+        if (parent == null || !parent.directory) {
+            return;
+        }
+        final String name = path.getFileName()
+                                .toString();
+        Node node = parent.children.get(name);
+        if (node == null) {
+            node = new Node(parent, path, directory, fileSize, lastModified);
+            parent.children.put(name, node);
+            size++;
+            if (!directory) {
+                byExtension.computeIfAbsent(extension(name), e -> new LinkedHashSet<>())
+                           .add(node);
+            }
+        } else {
+            node.size = fileSize;
+            node.lastModified = lastModified;
+        }
+    }
+
+    private void remove(Node node) {
+        if (node == null || node == rootNode) {
+            return;
+        }
+        node.parent.children.remove(node.name);
+        final Deque<Node> removed = new ArrayDeque<>(List.of(node));
+        while (!removed.isEmpty()) {
+            final Node current = removed.poll();
+            size--;
+            if (current.directory) {
+                removed.addAll(current.children.values());
+                final WatchKey key = watchKeys.remove(current.path);
+                if (key != null) {
+                    key.cancel();
+                    watchedDirectories.remove(key);
+                }
+            } else {
+                final Set<Node> files = byExtension.get(extension(current.name));
+                if (files != null) {
+                    files.remove(current);
+                }
+            }
+        }
+    }
+
+    private Node lookup(Path path) {
+        final Path absolute = path.toAbsolutePath()
+                                  .normalize();
+        if (!absolute.startsWith(root)) {
+            return null;
+        }
+        final Path relative = root.relativize(absolute);
+        if (relative.toString()
+                    .isEmpty()) {
+            return rootNode;
+        }
+        Node node = rootNode;
+        for (Path name : relative) {
+            if (node.children == null) {
+                return null;
+            }
+            node = node.children.get(name.toString());
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private static void collect(Node directory, int depth, int maxDepth, List<Path> paths) {
+        if (depth > maxDepth) {
+            return;
+        }
+        for (Node child : directory.children.values()) {
+            paths.add(child.path);
+            if (child.directory) {
+                collect(child, depth + 1, maxDepth, paths);
+            }
+        }
+    }
+
+    static String extension(String fileName) {
+        final int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(dot + 1) : "";
+    }
+
+    private void write(IndexUpdate update) throws IOException {
+        lock.writeLock()
+            .lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void run() throws IOException;
+    }
+
+    @Value
+    static class Entry {
+        Path path;
+        boolean directory;
+        long size;
+        long lastModified;
+    }
+
+    private static final class Node {
+
+        final Node parent;
+        final String name;
+        final Path path;
+        final boolean directory;
+        final Map<String, Node> children;
+        long size;
+        long lastModified;
+
+        Node(Node parent, Path path, boolean directory, long size, long lastModified) {
+            this.parent = parent;
+            this.name = parent == null ? "" : path.getFileName()
+                                                  .toString();
+            this.path = path;
+            this.directory = directory;
+            this.children = directory ? new HashMap<>() : null;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+}
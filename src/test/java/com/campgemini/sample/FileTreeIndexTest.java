@@ -0,0 +1,156 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see FileTreeIndex
+ */
+class FileTreeIndexTest {
+
+    private static final long WATCH_TIMEOUT_MILLIS = 30_000;
+
+    @TempDir
+    Path directory;
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createDirectory(directory.resolve("root"));
+        for (int i = 0; i < 3; i++) {
+            final Path sub = Files.createDirectories(root.resolve("dir" + i)
+                                                         .resolve("sub"));
+            Files.write(sub.resolve("application.properties"), new byte[i]);
+            Files.createFile(sub.getParent()
+                                .resolve("readme.txt"));
+        }
+    }
+
+    @Test
+    void build_sameAsFilesFind() throws IOException {
+        // given
+        final FileTreeIndex index = FileTreeIndex.build(root);
+        // when
+        final List<Path> properties = index.findByExtension(".properties");
+        // then
+        try (Stream<Path> find = Files.find(root, Integer.MAX_VALUE, (p, a) -> p.toString()
+                                                                                .endsWith(".properties"))) {
+            assertThat(properties).containsExactlyInAnyOrderElementsOf(find.map(Path::toAbsolutePath)
+                                                                           .collect(Collectors.toList()));
+        }
+        assertThat(index.size()).isEqualTo(3 * 4);
+        assertThat(index.attributes(root.resolve("dir2/sub/application.properties"))
+                        .orElseThrow()
+                        .getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void find_prefixAndDepth() throws IOException {
+        // given
+        final FileTreeIndex index = FileTreeIndex.build(root);
+        // then
+        assertThat(index.findByPrefix(root.resolve("dir1"))).containsExactlyInAnyOrder(root.resolve("dir1/sub"),
+                                                                                         root.resolve("dir1/sub/application.properties"),
+                                                                                         root.resolve("dir1/readme.txt"));
+        assertThat(index.find(root, 1)).hasSize(3);
+        assertThat(index.find(root, 2)).hasSize(3 * 3);
+        assertThat(index.find(root.resolve("missing"), 1)).isEmpty();
+    }
+
+    @Test
+    void resources_likeFilesTest() throws IOException {
+        // given
+        final FileTreeIndex index = FileTreeIndex.build(Paths.get("src/test/resources"));
+        // then
+        assertThat(index.findByExtension("properties")).containsExactly(Paths.get("src/test/resources/application.properties")
+                                                                             .toAbsolutePath());
+    }
+
+    @Test
+    void watch_appliesChanges() throws IOException, InterruptedException {
+        // given
+        try (FileTreeIndex index = FileTreeIndex.build(root)
+                                                .watch()) {
+            // when
+            Files.createFile(root.resolve("dir0/new.properties"));
+            final Path created = Files.createDirectories(root.resolve("dir3/sub"));
+            Files.createFile(created.resolve("nested.properties"));
+            Files.delete(root.resolve("dir1/sub/application.properties"));
+            // then
+            await(() -> index.findByExtension("properties")
+                             .size() == 4
+                    && index.attributes(root.resolve("dir3/sub/nested.properties"))
+                            .isPresent());
+            assertThat(index.findByExtension("properties")).doesNotContain(root.resolve("dir1/sub/application.properties"));
+            assertThat(index.attributes(root.resolve("dir0/new.properties"))).isPresent();
+        }
+    }
+
+    @Test
+    void saveAndLoad_refreshesChangedDirectories() throws IOException {
+        // given
+        final Path file = directory.resolve("index.bin");
+        FileTreeIndex.build(root)
+                     .save(file);
+        // when: changes made while nothing watches the tree
+        final Path dir0 = root.resolve("dir0");
+        Files.createFile(dir0.resolve("added.properties"));
+        Files.setLastModifiedTime(dir0, FileTime.from(Instant.now()
+                                                             .plusSeconds(60)));
+        Files.delete(root.resolve("dir2/readme.txt"));
+        Files.setLastModifiedTime(root.resolve("dir2"), FileTime.from(Instant.now()
+                                                                             .plusSeconds(60)));
+        final FileTreeIndex loaded = FileTreeIndex.load(root, file);
+        // then
+        assertThat(loaded.findByExtension("properties")).hasSize(4)
+                                                        .contains(dir0.resolve("added.properties"));
+        assertThat(loaded.attributes(root.resolve("dir2/readme.txt"))).isEmpty();
+        assertThat(loaded.size()).isEqualTo(3 * 4);
+    }
+
+    @Test
+    void saveAndLoad_refreshesChangedNestedDirectories() throws IOException {
+        // given
+        final Path file = directory.resolve("index.bin");
+        FileTreeIndex.build(root)
+                     .save(file);
+        // when: parent and subdirectory changed, the parent is listed first
+        final Path dir0 = root.resolve("dir0");
+        Files.createFile(dir0.resolve("b.txt"));
+        Files.createFile(dir0.resolve("sub/c.txt"));
+        Files.setLastModifiedTime(dir0.resolve("sub"), FileTime.from(Instant.now()
+                                                                            .plusSeconds(60)));
+        Files.setLastModifiedTime(dir0, FileTime.from(Instant.now()
+                                                             .plusSeconds(60)));
+        final FileTreeIndex loaded = FileTreeIndex.load(root, file);
+        // then
+        assertThat(loaded.attributes(dir0.resolve("b.txt"))).isPresent();
+        assertThat(loaded.attributes(dir0.resolve("sub/c.txt"))).isPresent();
+        assertThat(loaded.size()).isEqualTo(3 * 4 + 2);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("watch timeout")
+                                                  .isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+}
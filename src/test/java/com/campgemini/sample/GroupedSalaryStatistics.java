@@ -0,0 +1,76 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@link SalaryStatistics} grouped by a primitive {@code int} key (for example the first letter of the last name).
+ * Groups are found through an {@link IntIntMap}, so accumulating does not box the key. Mergeable, like
+ * {@link SalaryStatistics}.
+ * <p>
+ * Every group keeps all its salaries for percentiles, so memory grows with the number of accumulated salaries, not
+ * only with the number of groups.
+ *
+ * @see Database#salaryStatisticsBy(ToIntFunction, boolean)
+ */
+class GroupedSalaryStatistics {
+
+    static final ToIntFunction<Person> LAST_NAME_INITIAL = GroupedSalaryStatistics::lastNameInitial;
+
+    private final IntIntMap groups = new IntIntMap(16);
+    private int[] keys = new int[16];
+    private SalaryStatistics[] statistics = new SalaryStatistics[16];
+
+    void accept(int key, long salary) {
+        group(key).accept(salary);
+    }
+
+    void combine(GroupedSalaryStatistics other) {
+        for (int i = 0; i < other.groups.size(); i++) {
+            group(other.keys[i]).combine(other.statistics[i]);
+        }
+    }
+
+    /**
+     * @return statistics of the group or {@code null} when nothing was accumulated for the key
+     */
+    SalaryStatistics get(int key) {
+        final int group = groups.get(key);
+        return group == IntIntMap.NO_VALUE ? null : statistics[group];
+    }
+
+    /**
+     * @return keys of all groups, in order of appearance
+     */
+    int[] keys() {
+        return Arrays.copyOf(keys, groups.size());
+    }
+
+    int size() {
+        return groups.size();
+    }
+
+    /**
+     * @return first character of the last name, {@code -1} for a missing or empty last name
+     */
+    static int lastNameInitial(Person person) {
+        final String lastName = person.getLastName();
+        return lastName == null || lastName.isEmpty() ? -1 : lastName.charAt(0);
+    }
+
+    private SalaryStatistics group(int key) {
+        int group = groups.get(key);
+        if (group == IntIntMap.NO_VALUE) {
+            group = groups.size();
+            if (group == keys.length) {
+                keys = Arrays.copyOf(keys, group << 1);
+                statistics = Arrays.copyOf(statistics, group << 1);
+            }
+            keys[group] = key;
+            statistics[group] = new SalaryStatistics();
+            groups.put(key, group);
+        }
+        return statistics[group];
+    }
+
+}
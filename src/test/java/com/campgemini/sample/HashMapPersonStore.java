@@ -0,0 +1,70 @@
+package com.campgemini.sample;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link PersonStore} backed by a {@link HashMap}. Every id is boxed and every entry costs a node object, so prefer
+ * {@link IntPersonStore} for big data sets.
+ */
+class HashMapPersonStore implements PersonStore {
+
+    private final Map<Integer, Person> persons = new HashMap<>();
+
+    @Override
+    public Person get(int id) {
+        return persons.get(id);
+    }
+
+    @Override
+    public Person put(Person person) {
+        return persons.put(person.getId(), person);
+    }
+
+    @Override
+    public int size() {
+        return persons.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Person> action) {
+        persons.values()
+               .forEach(action);
+    }
+
+    @Override
+    public Spliterator<Person> spliterator() {
+        return persons.values()
+                      .spliterator();
+    }
+
+    /**
+     * Copies the whole map, as {@link HashMap} can not share its table
+     */
+    @Override
+    public PersonSnapshot snapshot() {
+        final Map<Integer, Person> copy = Map.copyOf(persons);
+        return new PersonSnapshot() {
+
+            @Override
+            public Person get(int id) {
+                return copy.get(id);
+            }
+
+            @Override
+            public int size() {
+                return copy.size();
+            }
+
+            @Override
+            public Spliterator<Person> spliterator() {
+                return copy.values()
+                           .spliterator();
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.campgemini.sample;
+
+/**
+ * Primitive {@code int} to non-negative {@code int} open-addressing map with linear probing. Values are stored
+ * incremented by one, so {@code 0} marks a free slot and no separate state array is needed.
+ */
+class IntIntMap implements Cloneable {
+
+    static final int NO_VALUE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntIntMap(int expectedSize) {
+        final int capacity = IntPersonStore.capacityFor(expectedSize, IntPersonStore.DEFAULT_LOAD_FACTOR);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * @return value mapped to the key or {@link #NO_VALUE}
+     */
+    int get(int key) {
+        final int mask = keys.length - 1;
+        int slot = IntPersonStore.hash(key) & mask;
+        int value;
+        while ((value = values[slot]) != 0) {
+            if (keys[slot] == key) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * @return previous value or {@link #NO_VALUE}
+     */
+    int put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        final int mask = keys.length - 1;
+        int slot = IntPersonStore.hash(key) & mask;
+        int current;
+        while ((current = values[slot]) != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value + 1;
+                return current - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= keys.length >>> 1) {
+            rehash(keys.length << 1);
+            slot = freeSlot(key);
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        size++;
+        return NO_VALUE;
+    }
+
+    void ensureCapacity(int expectedSize) {
+        final int capacity = IntPersonStore.capacityFor(expectedSize, IntPersonStore.DEFAULT_LOAD_FACTOR);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    protected IntIntMap clone() {
+        try {
+            final IntIntMap clone = (IntIntMap) super.clone();
+            clone.keys = keys.clone();
+            clone.values = values.clone();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void rehash(int capacity) {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                final int slot = freeSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int freeSlot(int key) {
+        final int mask = keys.length - 1;
+        int slot = IntPersonStore.hash(key) & mask;
+        while (values[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+}
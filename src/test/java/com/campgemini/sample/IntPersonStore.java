@@ -0,0 +1,238 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link PersonStore} built on a primitive {@code int} to {@link Person} open-addressing table with linear probing.
+ * Ids are kept in an {@code int[]} and persons in a parallel array, so neither lookups nor inserts box the id or
+ * allocate an entry object. A {@code null} person marks a free slot.
+ * <p>
+ * {@link #snapshot()} shares the arrays with the returned view, the first write afterwards copies them
+ * (copy-on-write), so taking a snapshot is {@code O(1)} and a burst of writes pays for a single copy.
+ */
+class IntPersonStore implements PersonStore {
+
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int SORTED_BATCH_THRESHOLD = 64;
+
+    private final float loadFactor;
+    private int[] ids;
+    private Person[] persons;
+    private int size;
+    private int threshold;
+    private boolean shared;
+
+    IntPersonStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize number of persons which will fit without resizing
+     * @param loadFactor   fraction of slots which may be used before the table grows, in range (0, 1)
+     */
+    IntPersonStore(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in range (0, 1): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    @Override
+    public Person get(int id) {
+        return find(ids, persons, id);
+    }
+
+    /**
+     * Probes the ids in the order of their home slots rather than in the given order, so the table is walked once from
+     * the beginning to the end instead of being hit at random
+     */
+    @Override
+    public void getAll(int[] ids, Person[] result, int from, int to) {
+        if (to - from < SORTED_BATCH_THRESHOLD) {
+            PersonStore.super.getAll(ids, result, from, to);
+            return;
+        }
+        final int mask = this.ids.length - 1;
+        final long[] order = new long[to - from];
+        for (int i = from; i < to; i++) {
+            order[i - from] = ((long) (hash(ids[i]) & mask) << 32) | i;
+        }
+        Arrays.sort(order);
+        for (long slotAndIndex : order) {
+            final int i = (int) slotAndIndex;
+            result[i] = find(this.ids, persons, ids[i]);
+        }
+    }
+
+    private static Person find(int[] ids, Person[] persons, int id) {
+        final int mask = ids.length - 1;
+        int slot = hash(id) & mask;
+        Person person;
+        while ((person = persons[slot]) != null) {
+            if (ids[slot] == id) {
+                return person;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public Person put(Person person) {
+        final int id = person.getId();
+        final int mask = ids.length - 1;
+        int slot = hash(id) & mask;
+        Person current;
+        while ((current = persons[slot]) != null) {
+            if (ids[slot] == id) {
+                ensureWritable();
+                persons[slot] = person;
+                return current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= threshold) {
+            rehash(ids.length << 1);
+            slot = freeSlot(id);
+        } else {
+            ensureWritable();
+        }
+        ids[slot] = id;
+        persons[slot] = person;
+        size++;
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Person> action) {
+        for (Person person : persons) {
+            if (person != null) {
+                action.accept(person);
+            }
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > threshold) {
+            rehash(capacityFor(expectedSize, loadFactor));
+        }
+    }
+
+    @Override
+    public PersonSnapshot snapshot() {
+        shared = true;
+        return new Snapshot(ids, persons, size);
+    }
+
+    @Override
+    public Spliterator<Person> spliterator() {
+        return new PersonArraySpliterator(persons, size);
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * Spreads consecutive ids over the whole table (Fibonacci hashing), so they do not form long probe chains
+     */
+    static int hash(int id) {
+        final int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int capacityFor(int expectedSize, float loadFactor) {
+        final long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many persons for a single table: " + expectedSize);
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private void ensureWritable() {
+        if (shared) {
+            ids = ids.clone();
+            persons = persons.clone();
+            shared = false;
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        persons = new Person[capacity];
+        shared = false;
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Table can not grow beyond " + MAX_CAPACITY + " slots");
+        }
+        final int[] oldIds = ids;
+        final Person[] oldPersons = persons;
+        allocate(capacity);
+        for (int i = 0; i < oldPersons.length; i++) {
+            if (oldPersons[i] != null) {
+                final int slot = freeSlot(oldIds[i]);
+                ids[slot] = oldIds[i];
+                persons[slot] = oldPersons[i];
+            }
+        }
+    }
+
+    /**
+     * @return first free slot on the probe sequence of given id, which must not be present in the table
+     */
+    private int freeSlot(int id) {
+        final int mask = ids.length - 1;
+        int slot = hash(id) & mask;
+        while (persons[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static class Snapshot implements PersonSnapshot {
+
+        private final int[] ids;
+        private final Person[] persons;
+        private final int size;
+
+        Snapshot(int[] ids, Person[] persons, int size) {
+            this.ids = ids;
+            this.persons = persons;
+            this.size = size;
+        }
+
+        @Override
+        public Person get(int id) {
+            return find(ids, persons, id);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Spliterator<Person> spliterator() {
+            return new PersonArraySpliterator(persons, size);
+        }
+
+    }
+
+}
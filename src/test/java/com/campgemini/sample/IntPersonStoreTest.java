@@ -0,0 +1,122 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see IntPersonStore
+ */
+class IntPersonStoreTest {
+
+    @Test
+    void shouldFindStoredPerson() {
+        // given
+        final IntPersonStore store = new IntPersonStore();
+        final Person jan = person(1, "Jan", "Kowalski", 1_000);
+        // when
+        final Person replaced = store.put(jan);
+        // then
+        assertThat(replaced).isNull();
+        assertThat(store.get(1)).isSameAs(jan);
+        assertThat(store.get(2)).isNull();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplacePerson_withTheSameId() {
+        // given
+        final IntPersonStore store = new IntPersonStore();
+        final Person jan = person(1, "Jan", "Kowalski", 1_000);
+        final Person john = person(1, "John", "Kowalski", 1_000);
+        store.put(jan);
+        // when
+        final Person replaced = store.put(john);
+        // then
+        assertThat(replaced).isSameAs(jan);
+        assertThat(store.get(1)).isSameAs(john);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGrow_whenLoadFactorIsExceeded() {
+        // given
+        final IntPersonStore store = new IntPersonStore(4, 0.75f);
+        final int initialCapacity = store.capacity();
+        // when
+        for (int id = -5_000; id < 5_000; id++) {
+            store.put(person(id, "P" + id, "Kowalski", 1_000));
+        }
+        // then
+        assertThat(store.size()).isEqualTo(10_000);
+        assertThat(store.capacity()).isGreaterThan(initialCapacity)
+                                    .isGreaterThanOrEqualTo((int) (10_000 / 0.75f));
+        for (int id = -5_000; id < 5_000; id++) {
+            assertThat(store.get(id)
+                            .getFirstName()).isEqualTo("P" + id);
+        }
+        assertThat(store.get(5_000)).isNull();
+    }
+
+    @Test
+    void shouldStoreExtremeIds() {
+        // given
+        final IntPersonStore store = new IntPersonStore();
+        // when
+        store.put(person(Integer.MIN_VALUE, "min", "Kowalski", 1_000));
+        store.put(person(0, "zero", "Kowalski", 1_000));
+        store.put(person(Integer.MAX_VALUE, "max", "Kowalski", 1_000));
+        // then
+        assertThat(store.get(Integer.MIN_VALUE)
+                        .getFirstName()).isEqualTo("min");
+        assertThat(store.get(0)
+                        .getFirstName()).isEqualTo("zero");
+        assertThat(store.get(Integer.MAX_VALUE)
+                        .getFirstName()).isEqualTo("max");
+    }
+
+    @Test
+    void shouldVisitEveryPerson() {
+        // given
+        final IntPersonStore store = new IntPersonStore();
+        store.put(person(1, "Jan", "Kowalski", 1_000));
+        store.put(person(2, "Karolina", "Kowalski", 1_000));
+        final List<Person> visited = new ArrayList<>();
+        // when
+        store.forEach(visited::add);
+        // then
+        assertThat(visited).extracting(Person::getFirstName)
+                           .containsExactlyInAnyOrder("Jan", "Karolina");
+    }
+
+    @Test
+    void spliterator_shouldSeeLaterWrites_whileSnapshotDoesNot() {
+        // given
+        final IntPersonStore store = new IntPersonStore();
+        store.put(person(1, "Jan", "Kowalski", 1_000));
+        final PersonSnapshot snapshot = store.snapshot();
+        store.put(person(2, "Karolina", "Kowalski", 1_000));
+        final List<Person> visited = new ArrayList<>();
+        // when
+        store.spliterator()
+             .forEachRemaining(visited::add);
+        store.put(person(3, "Anna", "Kowalski", 1_000));
+        // then
+        assertThat(visited).extracting(Person::getFirstName)
+                           .containsExactlyInAnyOrder("Jan", "Karolina");
+        assertThat(snapshot).extracting(Person::getFirstName)
+                            .containsExactly("Jan");
+    }
+
+    @Test
+    void shouldRejectInvalidLoadFactor() {
+        assertThrows(IllegalArgumentException.class, () -> new IntPersonStore(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new IntPersonStore(16, 1));
+    }
+
+}
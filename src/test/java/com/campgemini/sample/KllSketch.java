@@ -0,0 +1,200 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch of {@code long} values. Level {@code h} holds items of weight {@code 2^h}; a full level is
+ * sorted and every other item (random offset) is promoted, so the sketch keeps {@code O(k)} items for any number of
+ * values. The normalized rank error is about 1.7% for {@code k = 200}. Min and max are exact.
+ * <p>
+ * Queries use a sorted, weighted view which is built once after a change, a query then is a binary search over
+ * {@code O(k)} items, independent of the number of values. Sketches can be merged in any order.
+ */
+class KllSketch {
+
+    static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+    private static final double DECAY = 2.0 / 3;
+
+    private final int k;
+    private long[][] levels = { new long[MIN_CAPACITY] };
+    private int[] sizes = new int[1];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long random = 0x9e3779b97f4a7c15L;
+    private long[] sortedValues;
+    private long[] cumulativeWeights;
+
+    KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+    }
+
+    synchronized void add(long value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        compress();
+    }
+
+    void merge(KllSketch other) {
+        final long[][] otherLevels;
+        final long otherCount;
+        final long otherMin;
+        final long otherMax;
+        synchronized (other) {
+            otherLevels = new long[other.levels.length][];
+            for (int h = 0; h < otherLevels.length; h++) {
+                otherLevels[h] = Arrays.copyOf(other.levels[h], other.sizes[h]);
+            }
+            otherCount = other.count;
+            otherMin = other.min;
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            for (int h = 0; h < otherLevels.length; h++) {
+                for (long value : otherLevels[h]) {
+                    append(h, value);
+                }
+            }
+            count += otherCount;
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+            compress();
+        }
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @param fraction in range [0, 1], 0 is the minimum and 1 the maximum
+     */
+    synchronized long quantile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction must be in range [0, 1]: " + fraction);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Sketch is empty");
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        if (sortedValues == null) {
+            buildSortedView();
+        }
+        final long total = cumulativeWeights[cumulativeWeights.length - 1];
+        final long target = (long) Math.ceil(fraction * total);
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return sortedValues[index];
+    }
+
+    /**
+     * @return number of items kept, which is {@code O(k)}
+     */
+    synchronized int retained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    private void append(int level, long value) {
+        if (level == levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            levels[level] = new long[MIN_CAPACITY];
+            sizes = Arrays.copyOf(sizes, level + 1);
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] << 1);
+        }
+        levels[level][sizes[level]++] = value;
+        sortedValues = null;
+    }
+
+    private int capacity(int level) {
+        final int depth = levels.length - level - 1;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+    }
+
+    private void compress() {
+        while (retained() >= totalCapacity()) {
+            int level = 0;
+            while (sizes[level] < capacity(level)) {
+                level++;
+            }
+            compact(level);
+        }
+    }
+
+    private int totalCapacity() {
+        int capacity = 0;
+        for (int h = 0; h < levels.length; h++) {
+            capacity += capacity(h);
+        }
+        return capacity;
+    }
+
+    private void compact(int level) {
+        final long[] items = levels[level];
+        final int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        final int pairs = size & ~1;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        for (int i = (int) (random & 1); i < pairs; i += 2) {
+            append(level + 1, items[i]);
+        }
+        if ((size & 1) == 1) {
+            items[0] = items[size - 1];
+            sizes[level] = 1;
+        } else {
+            sizes[level] = 0;
+        }
+    }
+
+    private void buildSortedView() {
+        long[] values = new long[0];
+        long[] weights = new long[0];
+        for (int h = 0; h < levels.length; h++) {
+            final long[] level = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(level);
+            final long[] mergedValues = new long[values.length + level.length];
+            final long[] mergedWeights = new long[mergedValues.length];
+            for (int i = 0, j = 0, m = 0; m < mergedValues.length; m++) {
+                if (j == level.length || i < values.length && values[i] <= level[j]) {
+                    mergedValues[m] = values[i];
+                    mergedWeights[m] = weights[i++];
+                } else {
+                    mergedValues[m] = level[j++];
+                    mergedWeights[m] = 1L << h;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+        for (int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1];
+        }
+        sortedValues = values;
+        cumulativeWeights = weights;
+    }
+
+}
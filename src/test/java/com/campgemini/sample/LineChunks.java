@@ -0,0 +1,80 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Splits a file into newline-aligned chunks: every chunk except the last ends right after a {@code '\n'}, so chunks
+ * can be parsed independently (and in parallel). Only a small window (a pooled buffer) around each boundary is read,
+ * nothing is mapped.
+ *
+ * @see NumericLineReader
+ */
+final class LineChunks {
+
+    /**
+     * Chunks are small enough to be mapped with a single {@link FileChannel#map}
+     */
+    static final long MAX_CHUNK_SIZE = 1 << 26;
+    private static final int WINDOW = 1 << 12;
+
+    private LineChunks() {
+    }
+
+    /**
+     * @param chunks desired number of chunks, more are created when a chunk would exceed {@code maxChunkSize}
+     * @return {@code n + 1} ascending offsets, chunk {@code i} is {@code [offsets[i], offsets[i + 1])}. A line longer
+     *         than {@code maxChunkSize} makes its chunk longer too.
+     */
+    static long[] split(FileChannel channel, int chunks, long maxChunkSize) throws IOException {
+        final long size = channel.size();
+        final long count = Math.max(1, Math.max(chunks, (size + maxChunkSize - 1) / maxChunkSize));
+        final long step = Math.max(1, size / count);
+        final long[] offsets = new long[(int) Math.min(count, Math.max(1, size)) + 1];
+        int n = 1;
+        try (ByteBufferPool.Lease window = ByteBufferPool.shared()
+                                                         .lease(WINDOW)) {
+            long offset = 0;
+            while (n < offsets.length - 1) {
+                offset = nextLine(channel, Math.max(offset, offsets[n - 1] + step), size, window.buffer());
+                if (offset >= size) {
+                    break;
+                }
+                offsets[n++] = offset;
+            }
+        }
+        offsets[n] = size;
+        return n + 1 == offsets.length ? offsets : Arrays.copyOf(offsets, n + 1);
+    }
+
+    /**
+     * @return offset just after the first {@code '\n'} at or after {@code from - 1}, or {@code limit}
+     */
+    static long nextLine(FileChannel channel, long from, long limit) throws IOException {
+        try (ByteBufferPool.Lease window = ByteBufferPool.shared()
+                                                         .lease(WINDOW)) {
+            return nextLine(channel, from, limit, window.buffer());
+        }
+    }
+
+    private static long nextLine(FileChannel channel, long from, long size, ByteBuffer window) throws IOException {
+        long position = from - 1;
+        while (position < size) {
+            window.clear();
+            final int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read && position + i < size; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+}
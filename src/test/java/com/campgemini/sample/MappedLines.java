@@ -0,0 +1,244 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Line reader over memory-mapped windows of a file, an alternative to {@code Files.lines} and
+ * {@code BufferedReader.readLine} which neither decodes bytes nor allocates per line. Files of any size are read by
+ * remapping a window of at most {@code windowSize} bytes, which must be larger than the longest line.
+ * <p>
+ * Every iterator (and every split of the {@link #spliterator()}) hands out a single {@link Line} which is reused for
+ * each line, so call {@link Line#toString()} to keep a line. Splits are made in the middle of the byte range, aligned
+ * to the next line, so {@code parallel()} streams get even work.
+ *
+ * @see LineChunks
+ */
+final class MappedLines implements Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = (int) LineChunks.MAX_CHUNK_SIZE;
+    private static final long MIN_SPLIT_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+
+    private MappedLines(FileChannel channel, int windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    static MappedLines open(Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    static MappedLines open(Path path, int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        return new MappedLines(FileChannel.open(path, StandardOpenOption.READ), windowSize);
+    }
+
+    /**
+     * Counterpart of {@code Files.lines(path)}: closing the stream closes the file
+     */
+    static Stream<Line> lines(Path path) throws IOException {
+        final MappedLines lines = open(path);
+        return lines.stream(false)
+                    .onClose(() -> {
+                        try {
+                            lines.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+    }
+
+    Iterator<Line> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    Spliterator<Line> spliterator() {
+        return new LineSpliterator(0, size);
+    }
+
+    Stream<Line> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reusable view of one line without its {@code \n} or {@code \r\n}. As a {@link CharSequence} every byte is one
+     * ISO-8859-1 char, which is exact for ASCII; use {@link #toString(Charset)} for other encodings.
+     */
+    static final class Line implements CharSequence {
+
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+        private long offset;
+
+        private void set(ByteBuffer buffer, int start, int length, long offset) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+            this.offset = offset;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (byteAt(index) & 0xff);
+        }
+
+        byte byteAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+            }
+            return buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        /**
+         * @return position of the line in the file
+         */
+        long offset() {
+            return offset;
+        }
+
+        /**
+         * @return read-only view of the line bytes, no copy is made
+         */
+        ByteBuffer bytes() {
+            return buffer.asReadOnlyBuffer()
+                         .position(start)
+                         .limit(start + length)
+                         .slice();
+        }
+
+        String toString(Charset charset) {
+            final byte[] bytes = new byte[length];
+            buffer.duplicate()
+                  .position(start)
+                  .get(bytes);
+            return new String(bytes, charset);
+        }
+
+        @Override
+        public String toString() {
+            return toString(StandardCharsets.ISO_8859_1);
+        }
+
+    }
+
+    private final class LineSpliterator implements Spliterator<Line> {
+
+        private final Line line = new Line();
+        private long position;
+        private long end;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        LineSpliterator(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Line> action) {
+            if (position >= end) {
+                return false;
+            }
+            if (window == null || position - windowStart >= window.limit()) {
+                map(position);
+            }
+            while (true) {
+                final int from = (int) (position - windowStart);
+                final int limit = window.limit();
+                int i = from;
+                while (i < limit && window.get(i) != '\n') {
+                    i++;
+                }
+                if (i < limit || windowStart + limit == end) {
+                    final int length = (i > from && window.get(i - 1) == '\r') ? i - from - 1 : i - from;
+                    line.set(window, from, length, position);
+                    position = windowStart + Math.min(i + 1, limit);
+                    action.accept(line);
+                    return true;
+                }
+                if (from == 0) {
+                    throw new IllegalStateException("Line at " + position + " is longer than window of "
+                            + windowSize + " bytes");
+                }
+                map(position);
+            }
+        }
+
+        private void map(long from) {
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(windowSize, end - from));
+                windowStart = from;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<Line> trySplit() {
+            if (window != null || end - position < 2 * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            final long middle;
+            try {
+                middle = LineChunks.nextLine(channel, (position + end) >>> 1, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (middle <= position || middle >= end) {
+                return null;
+            }
+            final LineSpliterator prefix = new LineSpliterator(position, middle);
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see MappedLines
+ */
+class MappedLinesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lines_sameAsFilesLines() throws IOException {
+        // given
+        final Path path = Paths.get("src/test/resources/sampleFile.txt");
+        // when
+        final List<String> lines;
+        try (Stream<MappedLines.Line> stream = MappedLines.lines(path)) {
+            lines = stream.map(MappedLines.Line::toString)
+                          .collect(Collectors.toList());
+        }
+        // then
+        assertThat(lines).isEqualTo(Files.readAllLines(path));
+    }
+
+    @Test
+    void iterator_crLfEmptyLinesAndLastLineWithoutNewLine() throws IOException {
+        // given
+        final Path path = write("first\r\n\nthird\r\nlast");
+        // when
+        final List<String> lines = new ArrayList<>();
+        try (MappedLines mapped = MappedLines.open(path)) {
+            mapped.iterator()
+                  .forEachRemaining(line -> lines.add(line.toString()));
+        }
+        // then
+        assertThat(lines).containsExactly("first", "", "third", "last");
+    }
+
+    @Test
+    void iterator_reusesLineView() throws IOException {
+        // given
+        final Path path = write("a\nbb\n");
+        try (MappedLines mapped = MappedLines.open(path)) {
+            final Iterator<MappedLines.Line> iterator = mapped.iterator();
+            // when
+            final MappedLines.Line first = iterator.next();
+            final long firstOffset = first.offset();
+            final MappedLines.Line second = iterator.next();
+            // then
+            assertThat(second).isSameAs(first);
+            assertThat(firstOffset).isZero();
+            assertThat(second.offset()).isEqualTo(2);
+            assertThat(second.length()).isEqualTo(2);
+            assertThat(second.bytes()
+                             .remaining()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void iterator_remapsSmallWindow() throws IOException {
+        // given: windows of 64 bytes over a file of several KB
+        final List<String> expected = IntStream.range(0, 1000)
+                                               .mapToObj(i -> "line " + i)
+                                               .collect(Collectors.toList());
+        final Path path = write(String.join("\n", expected) + "\n");
+        // when
+        final List<String> lines;
+        try (MappedLines mapped = MappedLines.open(path, 64)) {
+            lines = mapped.stream(false)
+                          .map(MappedLines.Line::toString)
+                          .collect(Collectors.toList());
+        }
+        // then
+        assertThat(lines).isEqualTo(expected);
+    }
+
+    @Test
+    void iterator_lineLongerThanWindow() throws IOException {
+        // given
+        final Path path = write("short\n" + "x".repeat(100) + "\n");
+        try (MappedLines mapped = MappedLines.open(path, 64)) {
+            // then
+            assertThrows(IllegalStateException.class, () -> mapped.stream(false)
+                                                                  .count());
+        }
+    }
+
+    @Test
+    void toString_decodesCharset() throws IOException {
+        // given
+        final Path path = write("Zażółć\n");
+        try (MappedLines mapped = MappedLines.open(path)) {
+            // when
+            final MappedLines.Line line = mapped.iterator()
+                                                .next();
+            // then
+            assertThat(line.toString(StandardCharsets.UTF_8)).isEqualTo("Zażółć");
+            assertThat(line.charAt(0)).isEqualTo('Z');
+        }
+    }
+
+    @Test
+    void spliterator_splitsEvenlyOnLineBoundaries() throws IOException {
+        // given
+        final Path path = write(IntStream.range(0, 100_000)
+                                         .mapToObj(Integer::toString)
+                                         .collect(Collectors.joining("\n")));
+        try (MappedLines mapped = MappedLines.open(path)) {
+            final Spliterator<MappedLines.Line> suffix = mapped.spliterator();
+            final long size = suffix.estimateSize();
+            // when
+            final Spliterator<MappedLines.Line> prefix = suffix.trySplit();
+            // then
+            assertThat(prefix).isNotNull();
+            assertThat(prefix.estimateSize() + suffix.estimateSize()).isEqualTo(size);
+            assertThat((double) prefix.estimateSize()).isBetween(size * 0.49, size * 0.51);
+            suffix.tryAdvance(line -> assertThat(line.offset()).isEqualTo(prefix.estimateSize()));
+        }
+    }
+
+    @Test
+    void parallelStream_sameSumAsSequential() throws IOException {
+        // given
+        final Path path = write(IntStream.range(0, 200_000)
+                                         .mapToObj(Integer::toString)
+                                         .collect(Collectors.joining("\n")));
+        try (MappedLines mapped = MappedLines.open(path)) {
+            // when
+            final long sum = mapped.stream(true)
+                                   .mapToLong(line -> Long.parseLong(line, 0, line.length(), 10))
+                                   .sum();
+            // then
+            assertThat(sum).isEqualTo(199_999L * 200_000 / 2);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(directory.resolve("lines.txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
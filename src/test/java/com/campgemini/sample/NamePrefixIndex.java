@@ -0,0 +1,64 @@
+package com.campgemini.sample;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index on a name of {@link Person} for {@link String#startsWith(String)} lookups: all names with a given
+ * prefix form a contiguous range, which starts at the prefix itself. Persons without the name are not indexed.
+ */
+class NamePrefixIndex implements PersonIndex {
+
+    private final Function<Person, String> name;
+    private final ConcurrentSkipListMap<Key, Person> persons = new ConcurrentSkipListMap<>();
+
+    NamePrefixIndex(Function<Person, String> name) {
+        this.name = name;
+    }
+
+    @Override
+    public void update(Person previous, Person current) {
+        if (previous != null && name.apply(previous) != null) {
+            persons.remove(new Key(name.apply(previous), previous.getId()));
+        }
+        if (name.apply(current) != null) {
+            persons.put(new Key(name.apply(current), current.getId()), current);
+        }
+    }
+
+    /**
+     * @return persons whose name starts with the prefix, ordered by name
+     */
+    Stream<Person> startingWith(String prefix) {
+        return persons.tailMap(new Key(prefix, Integer.MIN_VALUE), true)
+                      .entrySet()
+                      .stream()
+                      .takeWhile(e -> e.getKey().name.startsWith(prefix))
+                      .map(Map.Entry::getValue);
+    }
+
+    int size() {
+        return persons.size();
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final String name;
+        private final int id;
+
+        Key(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            final int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Integer.compare(id, other.id);
+        }
+
+    }
+
+}
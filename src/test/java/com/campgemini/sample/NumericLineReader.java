@@ -0,0 +1,103 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LongSummaryStatistics;
+import java.util.stream.IntStream;
+
+/**
+ * Sums files with one integer per line (ASCII, {@code \n} or {@code \r\n} line ends, blank lines skipped) without
+ * loading them: the file is split into {@link LineChunks}, every chunk is memory-mapped and parsed straight from the
+ * bytes, chunks are processed in parallel and their {@link LongSummaryStatistics} combined. Compare with
+ * {@code Files.readAllLines(path).stream().mapToInt(Integer::parseInt).sum()}, which keeps a {@code String} per line.
+ *
+ * @see NumericLineReaderBenchmark
+ */
+final class NumericLineReader {
+
+    private static final int MAX_DIGITS = 18;
+
+    private NumericLineReader() {
+    }
+
+    static long sum(Path path) throws IOException {
+        return statistics(path).getSum();
+    }
+
+    static LongSummaryStatistics statistics(Path path) throws IOException {
+        return statistics(path, Runtime.getRuntime()
+                                       .availableProcessors()
+                * 4, true);
+    }
+
+    /**
+     * @throws NumberFormatException when a line is not an integer of at most 18 digits
+     */
+    static LongSummaryStatistics statistics(Path path, int chunks, boolean parallel) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long[] offsets = LineChunks.split(channel, chunks, LineChunks.MAX_CHUNK_SIZE);
+            final IntStream stream = IntStream.range(0, offsets.length - 1);
+            return (parallel ? stream.parallel() : stream).mapToObj(i -> parse(channel, offsets[i], offsets[i + 1]))
+                                                          .collect(LongSummaryStatistics::new,
+                                                                   LongSummaryStatistics::combine,
+                                                                   LongSummaryStatistics::combine);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static LongSummaryStatistics parse(FileChannel channel, long from, long to) {
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final LongSummaryStatistics statistics = new LongSummaryStatistics();
+        final int limit = buffer.limit();
+        long value = 0;
+        int digits = 0;
+        boolean negative = false;
+        boolean signed = false;
+        for (int i = 0; i < limit; i++) {
+            final byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                if (++digits > MAX_DIGITS) {
+                    throw invalid(from + i);
+                }
+            } else if (b == '\n') {
+                if (digits > 0) {
+                    statistics.accept(negative ? -value : value);
+                } else if (signed) {
+                    throw invalid(from + i);
+                }
+                value = 0;
+                digits = 0;
+                negative = false;
+                signed = false;
+            } else if ((b == '-' || b == '+') && digits == 0 && !signed) {
+                negative = b == '-';
+                signed = true;
+            } else if (b != '\r' || i + 1 < limit && buffer.get(i + 1) != '\n') {
+                // \r only as part of a \r\n line end (or at the end of the file)
+                throw invalid(from + i);
+            }
+        }
+        if (digits > 0) {
+            statistics.accept(negative ? -value : value);
+        } else if (signed) {
+            throw invalid(from + limit);
+        }
+        return statistics;
+    }
+
+    private static NumberFormatException invalid(long offset) {
+        return new NumberFormatException("Not an integer at byte " + offset);
+    }
+
+}
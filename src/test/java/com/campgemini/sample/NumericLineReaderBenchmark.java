@@ -0,0 +1,79 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sum of a file with one integer per line: {@code Files.readAllLines} plus {@code Integer::parseInt} (the
+ * {@link FilesTest} way) against {@link NumericLineReader}, sequential and parallel. The file is created in
+ * {@code java.io.tmpdir}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NumericLineReaderBenchmark {
+
+    @Param({ "10000000" })
+    private int lines;
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("numbers", ".txt");
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final StringBuilder content = new StringBuilder(lines * 8);
+        for (int i = 0; i < lines; i++) {
+            content.append(random.nextInt(1_000_000))
+                   .append('\n');
+        }
+        Files.write(path, content.toString()
+                                 .getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(path);
+    }
+
+    @Benchmark
+    public long readAllLines() throws IOException {
+        return Files.readAllLines(path)
+                    .stream()
+                    .mapToLong(Integer::parseInt)
+                    .sum();
+    }
+
+    @Benchmark
+    public long mappedSequential() throws IOException {
+        return NumericLineReader.statistics(path, 1, false)
+                                .getSum();
+    }
+
+    @Benchmark
+    public long mappedParallel() throws IOException {
+        return NumericLineReader.sum(path);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see NumericLineReader
+ * @see LineChunks
+ */
+class NumericLineReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void statistics_sameAsReadAllLines() throws IOException {
+        // given
+        final Random random = new Random(42);
+        final Path path = write(IntStream.range(0, 100_000)
+                                         .mapToObj(i -> Integer.toString(random.nextInt() / 2))
+                                         .collect(Collectors.joining("\n")));
+        final List<String> lines = Files.readAllLines(path);
+        final LongSummaryStatistics expected = lines.stream()
+                                                    .mapToLong(Integer::parseInt)
+                                                    .summaryStatistics();
+        for (int chunks : new int[] { 1, 7, 64 }) {
+            // when
+            final LongSummaryStatistics statistics = NumericLineReader.statistics(path, chunks, true);
+            // then
+            assertThat(statistics.getCount()).isEqualTo(expected.getCount());
+            assertThat(statistics.getSum()).isEqualTo(expected.getSum());
+            assertThat(statistics.getMin()).isEqualTo(expected.getMin());
+            assertThat(statistics.getMax()).isEqualTo(expected.getMax());
+        }
+    }
+
+    @Test
+    void sum_signsBlankLinesAndCarriageReturns() throws IOException {
+        // given
+        final Path path = write("1\r\n-2\r\n\r\n+3\n\n4\n");
+        // when
+        final long sum = NumericLineReader.sum(path);
+        // then
+        assertThat(sum).isEqualTo(6);
+    }
+
+    @Test
+    void sum_emptyFile() throws IOException {
+        // given
+        final Path path = write("");
+        // then
+        assertThat(NumericLineReader.statistics(path).getCount()).isZero();
+    }
+
+    @Test
+    void sum_invalidLine() throws IOException {
+        // given
+        final Path path = write("1\n2x\n3\n");
+        // then
+        assertThrows(NumberFormatException.class, () -> NumericLineReader.sum(path));
+    }
+
+    @Test
+    void sum_carriageReturnInsideLine() throws IOException {
+        // given
+        final Path path = write("1\n12\r34\n");
+        // then
+        assertThrows(NumberFormatException.class, () -> NumericLineReader.sum(path));
+        assertThat(NumericLineReader.sum(write("12\r\n34\r"))).isEqualTo(46);
+    }
+
+    @Test
+    void split_chunksEndAfterNewLine() throws IOException {
+        // given
+        final Path path = write(IntStream.range(0, 1000)
+                                         .mapToObj(Integer::toString)
+                                         .collect(Collectors.joining("\n")));
+        final byte[] bytes = Files.readAllBytes(path);
+        try (FileChannel channel = FileChannel.open(path)) {
+            // when: at most 100 bytes per chunk
+            final long[] offsets = LineChunks.split(channel, 2, 100);
+            // then
+            assertThat(offsets[0]).isZero();
+            assertThat(offsets[offsets.length - 1]).isEqualTo(bytes.length);
+            assertThat(offsets.length - 1).isGreaterThanOrEqualTo(bytes.length / 100);
+            for (int i = 1; i < offsets.length - 1; i++) {
+                assertThat(offsets[i]).isGreaterThan(offsets[i - 1]);
+                assertThat(bytes[(int) offsets[i] - 1]).isEqualTo((byte) '\n');
+            }
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(directory.resolve("numbers.txt"), content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * {@link PersonStore} which keeps persons outside of the Java heap. Records encoded with {@link PersonCodec} are
+ * appended to slabs: direct {@link ByteBuffer}s by default, or consecutive regions of a memory-mapped file (see
+ * {@link #mapped(Path, int)}). On heap there are only an {@link IntIntMap} from id to record number and a
+ * {@code long[]} of record addresses, so the GC does not have to trace millions of person objects.
+ * <p>
+ * Replacing a person appends a new record; the old bytes are not reclaimed. {@link #read(int, PersonFlyweight)} and
+ * {@link #forEach(PersonFlyweight, Consumer)} read without allocating. Like {@link IntPersonStore} it is not
+ * thread-safe and its snapshots are copy-on-write.
+ */
+class OffHeapPersonStore implements PersonStore {
+
+    static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    private final IntFunction<ByteBuffer> slabAllocator;
+    private final int slabSize;
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+    private int slabPosition;
+    private IntIntMap records = new IntIntMap(16);
+    private long[] addresses = new long[16];
+    private int size;
+    private boolean shared;
+
+    OffHeapPersonStore() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    OffHeapPersonStore(int slabSize) {
+        this(slabSize, index -> ByteBuffer.allocateDirect(slabSize));
+    }
+
+    /**
+     * @param slabAllocator creates a slab of {@code slabSize} bytes for a given slab index
+     */
+    OffHeapPersonStore(int slabSize, IntFunction<ByteBuffer> slabAllocator) {
+        if (slabSize < PersonCodec.HEADER_SIZE + 2 * PersonCodec.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Slab must fit the biggest record: " + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.slabAllocator = slabAllocator;
+        slabPosition = slabSize;
+    }
+
+    /**
+     * @return store whose slabs are consecutive regions of the file, mapped as they are needed
+     */
+    static OffHeapPersonStore mapped(Path file, int slabSize) {
+        return new OffHeapPersonStore(slabSize, index -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE)) {
+                // the mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * slabSize, slabSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can not map slab " + index + " of " + file, e);
+            }
+        });
+    }
+
+    @Override
+    public Person get(int id) {
+        final int record = records.get(id);
+        return record == IntIntMap.NO_VALUE ? null : PersonCodec.read(slab(addresses[record]), offset(addresses[record]));
+    }
+
+    /**
+     * Binds the flyweight to the person with given id
+     *
+     * @return {@code false} when there is no such person; the flyweight is left unchanged then
+     */
+    boolean read(int id, PersonFlyweight flyweight) {
+        final int record = records.get(id);
+        if (record == IntIntMap.NO_VALUE) {
+            return false;
+        }
+        flyweight.wrap(slab(addresses[record]), offset(addresses[record]));
+        return true;
+    }
+
+    @Override
+    public Person put(Person person) {
+        final byte[] firstName = PersonCodec.encodeName(person.getFirstName());
+        final byte[] lastName = PersonCodec.encodeName(person.getLastName());
+        final int recordSize = PersonCodec.size(firstName, lastName);
+        if (slabPosition + recordSize > slabSize) {
+            addSlab();
+        }
+        final int slab = slabs.length - 1;
+        final long address = ((long) slab << 32) | slabPosition;
+        PersonCodec.write(slabs[slab], slabPosition, person.getId(), person.getSalary(), firstName, lastName);
+        slabPosition += recordSize;
+
+        ensureWritable();
+        int record = records.get(person.getId());
+        Person previous = null;
+        if (record == IntIntMap.NO_VALUE) {
+            record = size++;
+            records.put(person.getId(), record);
+            if (record == addresses.length) {
+                addresses = Arrays.copyOf(addresses, record << 1);
+            }
+        } else {
+            previous = PersonCodec.read(slab(addresses[record]), offset(addresses[record]));
+        }
+        addresses[record] = address;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Person> action) {
+        for (int record = 0; record < size; record++) {
+            action.accept(PersonCodec.read(slab(addresses[record]), offset(addresses[record])));
+        }
+    }
+
+    /**
+     * Allocation-free iteration: the same flyweight is rebound to every person, so it must not be kept by the action
+     */
+    void forEach(PersonFlyweight flyweight, Consumer<? super PersonFlyweight> action) {
+        for (int record = 0; record < size; record++) {
+            action.accept(flyweight.wrap(slab(addresses[record]), offset(addresses[record])));
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        ensureWritable();
+        records.ensureCapacity(expectedSize);
+        if (expectedSize > addresses.length) {
+            addresses = Arrays.copyOf(addresses, expectedSize);
+        }
+    }
+
+    @Override
+    public PersonSnapshot snapshot() {
+        shared = true;
+        return new Snapshot(slabs, records, addresses, size);
+    }
+
+    @Override
+    public Spliterator<Person> spliterator() {
+        return IntStream.range(0, size)
+                        .mapToObj(record -> PersonCodec.read(slab(addresses[record]), offset(addresses[record])))
+                        .spliterator();
+    }
+
+    /**
+     * @return bytes allocated off heap
+     */
+    long allocatedBytes() {
+        return (long) slabs.length * slabSize;
+    }
+
+    private ByteBuffer slab(long address) {
+        return slabs[(int) (address >>> 32)];
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private void addSlab() {
+        final ByteBuffer slab = slabAllocator.apply(slabs.length);
+        // a snapshot keeps its own copy of the array, so appending never disturbs it
+        slabs = Arrays.copyOf(slabs, slabs.length + 1);
+        slabs[slabs.length - 1] = slab;
+        slabPosition = 0;
+    }
+
+    private void ensureWritable() {
+        if (shared) {
+            records = records.clone();
+            addresses = addresses.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * Records are never overwritten, so the snapshot may share slabs with the store
+     */
+    private static class Snapshot implements PersonSnapshot {
+
+        private final ByteBuffer[] slabs;
+        private final IntIntMap records;
+        private final long[] addresses;
+        private final int size;
+
+        Snapshot(ByteBuffer[] slabs, IntIntMap records, long[] addresses, int size) {
+            this.slabs = slabs;
+            this.records = records;
+            this.addresses = addresses;
+            this.size = size;
+        }
+
+        @Override
+        public Person get(int id) {
+            final int record = records.get(id);
+            return record == IntIntMap.NO_VALUE ? null : read(record);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Spliterator<Person> spliterator() {
+            return IntStream.range(0, size)
+                            .mapToObj(this::read)
+                            .spliterator();
+        }
+
+        private Person read(int record) {
+            return PersonCodec.read(slabs[(int) (addresses[record] >>> 32)], offset(addresses[record]));
+        }
+
+    }
+
+}
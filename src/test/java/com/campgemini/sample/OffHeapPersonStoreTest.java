@@ -0,0 +1,105 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see OffHeapPersonStore
+ */
+class OffHeapPersonStoreTest {
+
+    private static final int SLAB_SIZE = 1 << 17;
+
+    @Test
+    void shouldStoreAndReadPersons_acrossManySlabs() {
+        // given
+        final OffHeapPersonStore store = new OffHeapPersonStore(SLAB_SIZE);
+        // when
+        for (int id = 0; id < 10_000; id++) {
+            store.put(person(id, "Łukasz" + id, "Żółć", id * 100L));
+        }
+        // then
+        assertThat(store.size()).isEqualTo(10_000);
+        assertThat(store.allocatedBytes()).isGreaterThan(SLAB_SIZE);
+        for (int id = 0; id < 10_000; id++) {
+            assertThat(store.get(id)).isEqualTo(person(id, "Łukasz" + id, "Żółć", id * 100L));
+        }
+        assertThat(store.get(10_000)).isNull();
+    }
+
+    @Test
+    void shouldReplacePerson_withTheSameId() {
+        // given
+        final OffHeapPersonStore store = new OffHeapPersonStore(SLAB_SIZE);
+        store.put(person(1, "Jan", "Kowalski", 100));
+        // when
+        final Person previous = store.put(person(1, "Janusz", null, 100));
+        // then
+        assertThat(previous.getFirstName()).isEqualTo("Jan");
+        assertThat(store.get(1)).isEqualTo(person(1, "Janusz", null, 100));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void flyweight_shouldBeReused() {
+        // given
+        final OffHeapPersonStore store = new OffHeapPersonStore(SLAB_SIZE);
+        store.put(person(1, "Jan", "Kowalski", 100));
+        store.put(person(2, "Karolina", "Piekna", 200));
+        final PersonFlyweight flyweight = new PersonFlyweight();
+        // when
+        final boolean found = store.read(2, flyweight);
+        // then
+        assertThat(found).isTrue();
+        assertThat(flyweight.getId()).isEqualTo(2);
+        assertThat(flyweight.getSalary()).isEqualTo(200);
+        assertThat(flyweight.getFirstName()).isEqualTo("Karolina");
+        assertThat(flyweight.getLastName()).isEqualTo("Piekna");
+        assertThat(store.read(3, flyweight)).isFalse();
+        // when
+        final long[] sum = { 0 };
+        store.forEach(flyweight, f -> sum[0] += f.getSalary());
+        // then
+        assertThat(sum[0]).isEqualTo(300);
+    }
+
+    @Test
+    void snapshot_isNotAffectedByLaterChanges() {
+        // given
+        final OffHeapPersonStore store = new OffHeapPersonStore(SLAB_SIZE);
+        store.put(person(1, "Jan", "Kowalski", 100));
+        final PersonSnapshot snapshot = store.snapshot();
+        // when
+        store.put(person(1, "Janusz", "Kowalski", 100));
+        store.put(person(2, "Karolina", "Piekna", 200));
+        // then
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.get(1)
+                           .getFirstName()).isEqualTo("Jan");
+        assertThat(snapshot.get(2)).isNull();
+        assertThat(snapshot).extracting(Person::getFirstName)
+                            .containsExactly("Jan");
+    }
+
+    @Test
+    void mapped_shouldWriteRecordsIntoFile(@TempDir Path dir) throws IOException {
+        // given
+        final Path file = dir.resolve("persons.bin");
+        final OffHeapPersonStore store = OffHeapPersonStore.mapped(file, SLAB_SIZE);
+        // when
+        for (int id = 0; id < 5_000; id++) {
+            store.put(person(id, "Jan", "Kowalski", id * 100L));
+        }
+        // then
+        assertThat(store.get(4_999)).isEqualTo(person(4_999, "Jan", "Kowalski", 499_900));
+        assertThat(Files.size(file)).isEqualTo(store.allocatedBytes());
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable merge sort for any comparator on the common {@link ForkJoinPool}: ranges of up to
+ * {@link #SEQUENTIAL_THRESHOLD} elements are sorted by {@link Arrays#sort(Object[], int, int, Comparator)}, sorted
+ * halves are merged in parallel too (the larger run is split at its middle, the other one at the binary searched
+ * position of that element). Halves already in order are not merged at all.
+ * <p>
+ * For strings in natural order {@link StringRadixSort} needs no comparator calls at all, for persons by a numeric field
+ * see {@link PersonSort}.
+ */
+final class ParallelMergeSort {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    private ParallelMergeSort() {
+    }
+
+    /**
+     * @param comparator {@code null} for the natural order, like {@link List#sort(Comparator)}
+     */
+    static <T> void sort(T[] elements, Comparator<? super T> comparator) {
+        final Comparator<? super T> order = comparator != null ? comparator : natural();
+        if (elements.length <= SEQUENTIAL_THRESHOLD) {
+            Arrays.sort(elements, order);
+            return;
+        }
+        ForkJoinPool.commonPool()
+                    .invoke(new SortTask<>(elements, new Object[elements.length], 0, elements.length, order));
+    }
+
+    /**
+     * Like {@link List#sort(Comparator)}: the list is copied to an array, sorted and written back
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void sort(List<T> list, Comparator<? super T> comparator) {
+        final Object[] elements = list.toArray();
+        sort((T[]) elements, comparator);
+        final ListIterator<T> iterator = list.listIterator();
+        for (Object element : elements) {
+            iterator.next();
+            iterator.set((T) element);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<T> natural() {
+        return (Comparator<T>) Comparator.naturalOrder();
+    }
+
+    private static class SortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] elements;
+        private final Object[] buffer;
+        private final int from;
+        private final int to;
+        private final transient Comparator<? super T> comparator;
+
+        SortTask(T[] elements, Object[] buffer, int from, int to, Comparator<? super T> comparator) {
+            this.elements = elements;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Arrays.sort(elements, from, to, comparator);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new SortTask<>(elements, buffer, from, mid, comparator),
+                      new SortTask<>(elements, buffer, mid, to, comparator));
+            if (comparator.compare(elements[mid - 1], elements[mid]) <= 0) {
+                return;
+            }
+            // merged back from a copy, so no task overwrites elements another one has still to read
+            System.arraycopy(elements, from, buffer, from, to - from);
+            new MergeTask<>(buffer, from, mid, mid, to, elements, from, comparator).compute();
+        }
+
+    }
+
+    /**
+     * Merges runs {@code [leftFrom, leftTo)} and {@code [rightFrom, rightTo)} of the source to the target from
+     * {@code at}, elements of the left run first when equal
+     */
+    private static class MergeTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] source;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final T[] target;
+        private final int at;
+        private final transient Comparator<? super T> comparator;
+
+        MergeTask(Object[] source, int leftFrom, int leftTo, int rightFrom, int rightTo, T[] target, int at,
+                  Comparator<? super T> comparator) {
+            this.source = source;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.target = target;
+            this.at = at;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            final int left = leftTo - leftFrom;
+            final int right = rightTo - rightFrom;
+            if (left + right <= SEQUENTIAL_THRESHOLD) {
+                merge();
+                return;
+            }
+            final int leftSplit;
+            final int rightSplit;
+            if (left >= right) {
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                // right elements equal to the pivot stay behind it
+                rightSplit = search(rightFrom, rightTo, element(leftSplit), false);
+            } else {
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                // left elements equal to the pivot stay before it
+                leftSplit = search(leftFrom, leftTo, element(rightSplit), true);
+            }
+            invokeAll(new MergeTask<>(source, leftFrom, leftSplit, rightFrom, rightSplit, target, at, comparator),
+                      new MergeTask<>(source, leftSplit, leftTo, rightSplit, rightTo, target,
+                                      at + (leftSplit - leftFrom) + (rightSplit - rightFrom), comparator));
+        }
+
+        private void merge() {
+            int l = leftFrom;
+            int r = rightFrom;
+            int i = at;
+            while (l < leftTo && r < rightTo) {
+                if (comparator.compare(element(r), element(l)) < 0) {
+                    target[i++] = element(r++);
+                } else {
+                    target[i++] = element(l++);
+                }
+            }
+            while (l < leftTo) {
+                target[i++] = element(l++);
+            }
+            while (r < rightTo) {
+                target[i++] = element(r++);
+            }
+        }
+
+        /**
+         * @param afterEqual {@code true} for the first index after the elements equal to the pivot, {@code false} for
+         *                   the first index of them
+         */
+        private int search(int from, int to, T pivot, boolean afterEqual) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                final int c = comparator.compare(element(mid), pivot);
+                if (c < 0 || afterEqual && c == 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T element(int index) {
+            return (T) source[index];
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see ParallelMergeSort
+ */
+class ParallelMergeSortTest {
+
+    @Test
+    void sort_shouldUseNaturalOrder_forNullComparator() {
+        // given
+        final List<String> words = new ArrayList<>(Arrays.asList("ala", "ma", "czarnego", "kota"));
+        // when
+        ParallelMergeSort.sort(words, null);
+        // then
+        assertThat(words).containsExactly("ala", "czarnego", "kota", "ma");
+    }
+
+    @Test
+    void sort_shouldUseReversedComparator() {
+        // given
+        final List<String> words = new ArrayList<>(Arrays.asList("ala", "ma", "czarnego", "kota"));
+        // when
+        ParallelMergeSort.sort(words, Comparator.<String> naturalOrder()
+                                                .reversed());
+        // then
+        assertThat(words).containsExactly("ma", "kota", "czarnego", "ala");
+    }
+
+    @Test
+    void sort_shouldBeStable_forLargeArrays() {
+        // given
+        final Random random = new Random(11);
+        final Person[] persons = new Person[200_000];
+        for (int i = 0; i < persons.length; i++) {
+            persons[i] = Person.builder()
+                               .id(i)
+                               .lastName("Name" + random.nextInt(1_000))
+                               .build();
+        }
+        final Comparator<Person> byLastName = Comparator.comparing(Person::getLastName);
+        final Person[] expected = persons.clone();
+        Arrays.sort(expected, byLastName);
+        // when
+        ParallelMergeSort.sort(persons, byLastName);
+        // then
+        assertThat(persons).isEqualTo(expected);
+    }
+
+    @Test
+    void sort_shouldKeepSortedInput() {
+        // given
+        final Integer[] numbers = new Integer[50_000];
+        Arrays.setAll(numbers, i -> i / 3);
+        final Integer[] expected = numbers.clone();
+        // when
+        ParallelMergeSort.sort(numbers, Integer::compare);
+        // then
+        assertThat(numbers).isEqualTo(expected);
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.campgemini.sample;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Canonicalization cache for code which builds the same few paths over and over, instead of
+ * {@code Paths.get(...).normalize()}, {@code resolve} and {@code relativize} of {@link PathsTest} on every call.
+ * <ul>
+ * <li>parsing - a path string is parsed and normalized once, later calls get the cached path</li>
+ * <li>interning - equal normalized paths are one instance, so cached pairs compare cheaply and memory holds each path
+ * once</li>
+ * <li>memoization - {@code resolve}, {@code resolveSibling} and {@code relativize} results of (base, other) pairs are
+ * kept</li>
+ * </ul>
+ * Every map is bounded and drops the least recently used entry, like {@link PersonCache}. All results are normalized
+ * and interned, so {@code resolve(base, "../x")} gives {@code x} next to base rather than {@code base/../x}.
+ */
+class PathCache {
+
+    static final int DEFAULT_MAXIMUM_PATHS = 4096;
+    static final int DEFAULT_MAXIMUM_PAIRS = 4096;
+
+    private final FileSystem fileSystem;
+    private final Lru<String, Path> parsed;
+    private final Lru<Path, Path> interned;
+    private final Lru<Pair, Path> pairs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param fileSystem   parses the strings, {@link FileSystems#getDefault()} by default
+     * @param maximumPaths number of parsed strings and of interned paths, {@link #DEFAULT_MAXIMUM_PATHS} by default
+     * @param maximumPairs number of memoized (base, other) results, {@link #DEFAULT_MAXIMUM_PAIRS} by default
+     */
+    @Builder
+    private PathCache(FileSystem fileSystem, int maximumPaths, int maximumPairs) {
+        if (maximumPaths < 0 || maximumPairs < 0) {
+            throw new IllegalArgumentException("Maximum sizes must not be negative: " + maximumPaths + ", "
+                    + maximumPairs);
+        }
+        this.fileSystem = fileSystem == null ? FileSystems.getDefault() : fileSystem;
+        final int paths = maximumPaths == 0 ? DEFAULT_MAXIMUM_PATHS : maximumPaths;
+        this.parsed = new Lru<>(paths);
+        this.interned = new Lru<>(paths);
+        this.pairs = new Lru<>(maximumPairs == 0 ? DEFAULT_MAXIMUM_PAIRS : maximumPairs);
+    }
+
+    /**
+     * Like {@link Paths#get(String, String...)} followed by {@link Path#normalize()}
+     *
+     * @throws java.nio.file.InvalidPathException like {@code Paths.get}, nothing is cached then
+     */
+    Path get(String first, String... more) {
+        final String key = more.length == 0 ? first : join(first, more);
+        return cached(parsed, key, k -> intern(fileSystem.getPath(k)));
+    }
+
+    /**
+     * @return normalized path, the same instance for all paths equal after normalization while it stays cached
+     */
+    Path intern(Path path) {
+        final Path normalized = path.normalize();
+        final Path existing;
+        synchronized (interned) {
+            existing = interned.putIfAbsent(normalized, normalized);
+        }
+        return existing != null ? existing : normalized;
+    }
+
+    Path resolve(Path base, String other) {
+        return resolve(base, get(other));
+    }
+
+    Path resolve(Path base, Path other) {
+        return cached(pairs, new Pair(Operation.RESOLVE, base, other), p -> intern(p.base.resolve(p.other)));
+    }
+
+    Path resolveSibling(Path base, String other) {
+        return resolveSibling(base, get(other));
+    }
+
+    Path resolveSibling(Path base, Path other) {
+        return cached(pairs, new Pair(Operation.RESOLVE_SIBLING, base, other),
+                      p -> intern(p.base.resolveSibling(p.other)));
+    }
+
+    /**
+     * Like {@link Path#relativize(Path)} of both paths normalized first
+     *
+     * @throws IllegalArgumentException when only one of the paths has a root
+     */
+    Path relativize(Path base, Path other) {
+        return cached(pairs, new Pair(Operation.RELATIVIZE, base, other),
+                      p -> intern(intern(p.base).relativize(intern(p.other))));
+    }
+
+    void clear() {
+        synchronized (parsed) {
+            parsed.clear();
+        }
+        synchronized (interned) {
+            interned.clear();
+        }
+        synchronized (pairs) {
+            pairs.clear();
+        }
+    }
+
+    Stats stats() {
+        final int paths;
+        synchronized (interned) {
+            paths = interned.size();
+        }
+        final int memoized;
+        synchronized (pairs) {
+            memoized = pairs.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), paths, memoized);
+    }
+
+    /**
+     * Computed outside of the lock, two threads missing the same key both compute it and the later one is dropped
+     */
+    private <K> Path cached(Lru<K, Path> cache, K key, Function<K, Path> compute) {
+        Path path;
+        synchronized (cache) {
+            path = cache.get(key);
+        }
+        if (path != null) {
+            hits.increment();
+            return path;
+        }
+        misses.increment();
+        path = compute.apply(key);
+        synchronized (cache) {
+            final Path existing = cache.putIfAbsent(key, path);
+            return existing != null ? existing : path;
+        }
+    }
+
+    /**
+     * Joins like {@code Paths.get}: empty parts are skipped
+     */
+    private String join(String first, String... more) {
+        final StringBuilder joined = new StringBuilder(first);
+        for (String part : more) {
+            if (!part.isEmpty()) {
+                if (joined.length() > 0) {
+                    joined.append(fileSystem.getSeparator());
+                }
+                joined.append(part);
+            }
+        }
+        return joined.toString();
+    }
+
+    private enum Operation {
+        RESOLVE, RESOLVE_SIBLING, RELATIVIZE
+    }
+
+    @Value
+    private static class Pair {
+        Operation operation;
+        Path base;
+        Path other;
+    }
+
+    /**
+     * Access ordered map dropping its eldest entry above the maximum size, guarded by its own monitor
+     */
+    private final class Lru<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Lru(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+    @Value
+    static class Stats {
+
+        long hits;
+        long misses;
+        long evictions;
+        int paths;
+        int pairs;
+
+        double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+    }
+
+}
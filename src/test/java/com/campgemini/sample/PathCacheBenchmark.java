@@ -0,0 +1,99 @@
+package com.campgemini.sample;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repeated parsing, resolving and relativizing of a small set of path strings: {@code Paths.get(...).normalize()}
+ * every time against {@link PathCache}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathCacheBenchmark {
+
+    @Param({ "64" })
+    private int distinct;
+
+    private String[] bases;
+    private String[] children;
+    private PathCache cache;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bases = new String[distinct];
+        children = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            bases[i] = "/srv/app/config/./module-" + i % 8 + "/../module-" + i + "/";
+            children[i] = "conf.d/../settings-" + i + ".properties";
+        }
+        cache = PathCache.builder()
+                         .build();
+    }
+
+    @Benchmark
+    public Path getRaw() {
+        return Paths.get(bases[next()])
+                    .normalize();
+    }
+
+    @Benchmark
+    public Path getCached() {
+        return cache.get(bases[next()]);
+    }
+
+    @Benchmark
+    public Path resolveRaw() {
+        final int i = next();
+        return Paths.get(bases[i])
+                    .normalize()
+                    .resolve(children[i])
+                    .normalize();
+    }
+
+    @Benchmark
+    public Path resolveCached() {
+        final int i = next();
+        return cache.resolve(cache.get(bases[i]), children[i]);
+    }
+
+    @Benchmark
+    public Path relativizeRaw() {
+        final int i = next();
+        return Paths.get(bases[i])
+                    .normalize()
+                    .relativize(Paths.get(bases[(i + 1) % distinct])
+                                     .normalize());
+    }
+
+    @Benchmark
+    public Path relativizeCached() {
+        final int i = next();
+        return cache.relativize(cache.get(bases[i]), cache.get(bases[(i + 1) % distinct]));
+    }
+
+    private int next() {
+        final int i = next;
+        next = i + 1 == distinct ? 0 : i + 1;
+        return i;
+    }
+
+}
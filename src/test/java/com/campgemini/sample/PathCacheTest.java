@@ -0,0 +1,132 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Expected values come from {@code Paths}, so the tests hold on every file system.
+ *
+ * @see PathCache
+ */
+class PathCacheTest {
+
+    private final PathCache cache = PathCache.builder()
+                                             .build();
+
+    @Test
+    void get_shouldNormalizeLikePaths() {
+        // when
+        final Path path = cache.get("personal/./photos/../readme.txt");
+        // then
+        assertThat(path).isEqualTo(Paths.get("personal/./photos/../readme.txt")
+                                        .normalize())
+                        .isEqualTo(Paths.get("personal", "readme.txt"));
+    }
+
+    @Test
+    void get_shouldJoinPartsLikePaths() {
+        // when
+        final Path path = cache.get("code", "", "java", "PathTest.java");
+        // then
+        assertThat(path).isEqualTo(Paths.get("code", "", "java", "PathTest.java"));
+    }
+
+    @Test
+    void get_shouldReturnSameInstance_forEqualNormalizedPaths() {
+        // when
+        final Path p1 = cache.get("code/java/PathTest.java");
+        final Path p2 = cache.get("code/./java/PathTest.java");
+        final Path p3 = cache.intern(Paths.get("code", "java", "..", "java", "PathTest.java"));
+        // then
+        assertThat(p1).isSameAs(p2)
+                      .isSameAs(p3)
+                      .isSameAs(cache.get("code/java/PathTest.java"));
+    }
+
+    @Test
+    void resolve_shouldMemoizePairs() {
+        // given
+        final Path base = cache.get("temp");
+        // when
+        final Path resolved1 = cache.resolve(base, "report.pdf");
+        final Path resolved2 = cache.resolve(base, "report.pdf");
+        // then
+        assertThat(resolved1).isEqualTo(Paths.get("temp", "report.pdf"))
+                             .isSameAs(resolved2);
+        final PathCache.Stats stats = cache.stats();
+        assertThat(stats.getPairs()).isEqualTo(1);
+        // temp, report.pdf and the pair missed once, then report.pdf and the pair hit
+        assertThat(stats.getMisses()).isEqualTo(3);
+        assertThat(stats.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void resolve_shouldNormalizeResult() {
+        // given
+        final Path base = cache.get("personal/photos");
+        // when
+        final Path resolved = cache.resolve(base, "../readme.txt");
+        // then
+        assertThat(resolved).isEqualTo(Paths.get("personal", "readme.txt"))
+                            .isSameAs(cache.get("personal/readme.txt"));
+    }
+
+    @Test
+    void resolveSibling() {
+        // given
+        final Path base = cache.get("temp/test.txt");
+        // when
+        final Path resolved = cache.resolveSibling(base, "report.pdf");
+        // then
+        assertThat(resolved).isEqualTo(Paths.get("temp", "report.pdf"));
+    }
+
+    @Test
+    void relativize_shouldNormalizeBothPathsFirst() {
+        // given
+        final Path p1 = Paths.get("personal/./photos/../readme.txt");
+        final Path p2 = Paths.get("personal/index.html");
+        // when
+        final Path relative = cache.relativize(p1, p2);
+        // then
+        assertThat(relative).isEqualTo(Paths.get("..", "index.html"));
+    }
+
+    @Test
+    void relativize_shouldThrow_whenOnlyOnePathHasRoot() {
+        // given
+        final Path absolute = cache.get("temp")
+                                   .toAbsolutePath();
+        final Path relative = cache.get("temp");
+        // when
+        assertThrows(IllegalArgumentException.class, () -> cache.relativize(absolute, relative));
+        // then
+        assertThat(cache.stats()
+                        .getPairs()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        // given
+        final PathCache small = PathCache.builder()
+                                         .maximumPaths(2)
+                                         .build();
+        final Path a = small.get("a");
+        small.get("b");
+        small.get("a");
+        // when
+        small.get("c");
+        // then
+        assertThat(small.stats()
+                        .getPaths()).isEqualTo(2);
+        assertThat(small.stats()
+                        .getEvictions()).isPositive();
+        assertThat(small.get("a")).isSameAs(a);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.campgemini.sample;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} over a slice of an open-addressing table; {@code null} slots are skipped. The exact size is known
+ * only for the top level spliterator, after a split the sizes are estimates.
+ */
+class PersonArraySpliterator implements Spliterator<Person> {
+
+    private static final int MIN_SPLIT = 1_024;
+
+    private final Person[] persons;
+    private int index;
+    private final int end;
+    private long estimatedSize;
+    private boolean sized;
+
+    PersonArraySpliterator(Person[] persons, int size) {
+        this(persons, 0, persons.length, size, true);
+    }
+
+    private PersonArraySpliterator(Person[] persons, int index, int end, long estimatedSize, boolean sized) {
+        this.persons = persons;
+        this.index = index;
+        this.end = end;
+        this.estimatedSize = estimatedSize;
+        this.sized = sized;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Person> action) {
+        while (index < end) {
+            final Person person = persons[index++];
+            if (person != null) {
+                action.accept(person);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Person> action) {
+        final Person[] persons = this.persons;
+        for (int i = index; i < end; i++) {
+            if (persons[i] != null) {
+                action.accept(persons[i]);
+            }
+        }
+        index = end;
+    }
+
+    @Override
+    public Spliterator<Person> trySplit() {
+        final int mid = (index + end) >>> 1;
+        if (mid - index < MIN_SPLIT) {
+            return null;
+        }
+        final long half = estimatedSize >>> 1;
+        final Spliterator<Person> prefix = new PersonArraySpliterator(persons, index, mid, half, false);
+        index = mid;
+        estimatedSize -= half;
+        sized = false;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return (sized ? SIZED : 0) | NONNULL | DISTINCT | IMMUTABLE;
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact binary {@link Person} file: the {@link #MAGIC} int followed by length-prefixed records
+ *
+ * <pre>
+ * varint record length | zigzag varint id | zigzag varint salary | varint firstName length + 1 | firstName UTF-8 | varint lastName length + 1 | lastName UTF-8
+ * </pre>
+ *
+ * A name length of {@code 0} encodes {@code null}. Small ids and salaries take one to three bytes instead of the
+ * twelve of {@link PersonCodec}; the length prefix lets readers skip records.
+ *
+ * @see PersonCsv
+ */
+final class PersonBinary {
+
+    static final int MAGIC = 0x50455231;
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private PersonBinary() {
+    }
+
+    /**
+     * Loads the file with {@link Database#load(Iterator)}
+     *
+     * @return number of imported persons
+     */
+    static long importInto(Database database, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Reader reader = reader(channel)) {
+            database.load(reader);
+            return reader.count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static void export(Database database, Path path) throws IOException {
+        write(database.snapshot(), FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes the persons and closes the channel
+     */
+    static void write(Iterable<Person> persons, WritableByteChannel channel) throws IOException {
+        try (ChannelOutput output = new ChannelOutput(channel)) {
+            output.reserve(Integer.BYTES)
+                  .putInt(MAGIC);
+            for (Person person : persons) {
+                final byte[] firstName = encode(person.getFirstName());
+                final byte[] lastName = encode(person.getLastName());
+                final long id = zigZag(person.getId());
+                final long salary = zigZag(person.getSalary());
+                final int size = varLongSize(id) + varLongSize(salary) + nameSize(firstName) + nameSize(lastName);
+                final ByteBuffer buffer = output.reserve(varLongSize(size) + size);
+                putVarLong(buffer, size);
+                putVarLong(buffer, id);
+                putVarLong(buffer, salary);
+                putName(buffer, firstName);
+                putName(buffer, lastName);
+            }
+        }
+    }
+
+    static Reader reader(ReadableByteChannel channel) throws IOException {
+        return reader(channel, ByteBufferPool.shared());
+    }
+
+    static Reader reader(ReadableByteChannel channel, ByteBufferPool buffers) throws IOException {
+        return new Reader(new ChannelInput(channel, buffers, ChannelInput.DEFAULT_BUFFER_SIZE));
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int varLongSize(long value) {
+        return value == 0 ? 1 : (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static byte[] encode(String name) {
+        return name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int nameSize(byte[] name) {
+        return name == null ? 1 : varLongSize(name.length + 1L) + name.length;
+    }
+
+    private static void putName(ByteBuffer buffer, byte[] name) {
+        if (name == null) {
+            buffer.put((byte) 0);
+        } else {
+            putVarLong(buffer, name.length + 1L);
+            buffer.put(name);
+        }
+    }
+
+    /**
+     * Streaming reader, validates the magic number; malformed records fail with an {@link IOException}
+     */
+    static final class Reader implements Iterator<Person>, Closeable {
+
+        private final ChannelInput input;
+        private Person next;
+        private long count;
+
+        /**
+         * @throws IOException when the magic number is missing, the input is closed then
+         */
+        private Reader(ChannelInput input) throws IOException {
+            this.input = input;
+            try {
+                if (!input.request(Integer.BYTES) || input.buffer()
+                                                          .getInt() != MAGIC) {
+                    throw new IOException("Not a person binary file");
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    input.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Person next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Person person = next;
+            next = null;
+            count++;
+            return person;
+        }
+
+        long count() {
+            return count;
+        }
+
+        private Person read() throws IOException {
+            if (!input.request(MAX_VARINT_SIZE) && !input.buffer()
+                                                         .hasRemaining()) {
+                return null;
+            }
+            final long size;
+            try {
+                size = getVarLong(input.buffer());
+            } catch (BufferUnderflowException e) {
+                throw new EOFException("Truncated record " + (count + 1));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed size of record " + (count + 1));
+            }
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Malformed size of record " + (count + 1) + ": " + size);
+            }
+            if (!input.request((int) size)) {
+                throw new EOFException("Truncated record " + (count + 1));
+            }
+            final ByteBuffer buffer = input.buffer();
+            final int end = buffer.position() + (int) size;
+            final int limit = buffer.limit();
+            // fields must not run into the next record
+            buffer.limit(end);
+            try {
+                return Person.builder()
+                             .id((int) unZigZag(getVarLong(buffer)))
+                             .salary(unZigZag(getVarLong(buffer)))
+                             .firstName(getName())
+                             .lastName(getName())
+                             .build();
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Malformed record " + (count + 1), e);
+            } finally {
+                buffer.limit(limit)
+                      .position(end);
+            }
+        }
+
+        private String getName() {
+            final ByteBuffer buffer = input.buffer();
+            final long encodedLength = getVarLong(buffer);
+            if (encodedLength == 0) {
+                return null;
+            }
+            final long length = encodedLength - 1;
+            if (length < 0 || length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            final String name = input.decode(buffer.position(), (int) length);
+            buffer.position(buffer.position() + (int) length);
+            return name;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see PersonBinary
+ */
+class PersonBinaryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportAndImport_roundTrip() throws IOException {
+        // given
+        final Database database = new Database();
+        database.addAll(IntStream.range(-5, 100_000)
+                                 .mapToObj(id -> person(id, "Jan", "Kowalski" + id, id * 7L))
+                                 .collect(Collectors.toList()));
+        database.add(person(Integer.MAX_VALUE, "Zażółć", null, Long.MIN_VALUE));
+        database.add(person(Integer.MIN_VALUE, "", "", Long.MAX_VALUE));
+        final Path path = directory.resolve("persons.bin");
+        // when
+        PersonBinary.export(database, path);
+        final Database imported = new Database();
+        final long count = PersonBinary.importInto(imported, path);
+        // then
+        assertThat(count).isEqualTo(100_007);
+        assertThat(imported.findAll()).containsExactlyInAnyOrderElementsOf(database.findAll());
+        assertThat(Files.size(path)).isLessThan(100_007L * (PersonCodec.HEADER_SIZE + 3 + 13));
+    }
+
+    @Test
+    void varLong_zigZagRoundTrip() {
+        // given
+        final ByteBuffer buffer = ByteBuffer.allocate(10);
+        for (long value : new long[] { 0, 1, -1, 63, -64, 64, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE }) {
+            // when
+            buffer.clear();
+            PersonBinary.putVarLong(buffer, PersonBinary.zigZag(value));
+            // then
+            assertThat(buffer.position()).isEqualTo(PersonBinary.varLongSize(PersonBinary.zigZag(value)));
+            buffer.flip();
+            assertThat(PersonBinary.unZigZag(PersonBinary.getVarLong(buffer))).isEqualTo(value);
+        }
+        assertThat(PersonBinary.varLongSize(PersonBinary.zigZag(-64))).isEqualTo(1);
+    }
+
+    @Test
+    void reader_truncatedFile() throws IOException {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PersonBinary.write(List.of(person(1, "Jan", "Kowalski", 100)), Channels.newChannel(out));
+        final byte[] bytes = out.toByteArray();
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        try (PersonBinary.Reader reader = PersonBinary.reader(Channels.newChannel(new ByteArrayInputStream(truncated)))) {
+            // when
+            final UncheckedIOException ex = assertThrows(UncheckedIOException.class, reader::hasNext);
+            // then
+            assertThat(ex.getCause()).isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    void reader_malformedRecordSize() throws IOException {
+        // given: magic and a record size of -1
+        final ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + 10)
+                                           .putInt(PersonBinary.MAGIC);
+        PersonBinary.putVarLong(bytes, -1);
+        try (PersonBinary.Reader reader = PersonBinary.reader(Channels.newChannel(new ByteArrayInputStream(bytes.array())))) {
+            // when
+            final UncheckedIOException ex = assertThrows(UncheckedIOException.class, reader::hasNext);
+            // then
+            assertThat(ex.getCause()).hasMessageContaining("Malformed size of record 1");
+        }
+    }
+
+    @Test
+    void reader_nameBeyondRecord() throws IOException {
+        // given: first name length of 100 in a record of 4 bytes, followed by a valid record
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PersonBinary.write(List.of(person(1, "Jan", "Kowalski", 100)), Channels.newChannel(out));
+        final byte[] valid = out.toByteArray();
+        final ByteBuffer bytes = ByteBuffer.allocate(valid.length + 5)
+                                           .putInt(PersonBinary.MAGIC)
+                                           .put(new byte[] { 4, 2, 2, 101, 0 })
+                                           .put(valid, Integer.BYTES, valid.length - Integer.BYTES);
+        try (PersonBinary.Reader reader = PersonBinary.reader(Channels.newChannel(new ByteArrayInputStream(bytes.array())))) {
+            // when
+            final UncheckedIOException ex = assertThrows(UncheckedIOException.class, reader::hasNext);
+            // then
+            assertThat(ex.getCause()).hasMessage("Malformed record 1");
+        }
+    }
+
+    @Test
+    void reader_notBinaryFile() {
+        assertThrows(IOException.class, () -> PersonBinary.reader(PersonCsvTest.channel(PersonCsv.HEADER + "\n")));
+    }
+
+}
@@ -0,0 +1,252 @@
+package com.campgemini.sample;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded read-through cache of persons fetched by a slow loader, like
+ * {@code database.find(id).orElseGet(this::fetchDefaultPerson)} in {@link OptionalTest}.
+ * <ul>
+ * <li>eviction - least recently used entry is dropped once {@code maximumSize} is exceeded</li>
+ * <li>TTL - an entry older than {@code expireAfterWrite} is loaded again</li>
+ * <li>refresh-ahead - an entry older than {@code refreshAfterWrite} is still returned, but reloaded in the
+ * background</li>
+ * <li>single-flight - concurrent misses of the same id wait for one loader call</li>
+ * </ul>
+ * {@code null} returned by the loader is passed to the caller, but not cached.
+ *
+ * @see #readThrough(Database, IntFunction)
+ */
+@Slf4j
+class PersonCache {
+
+    private final IntFunction<Person> loader;
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<Integer, CachedPerson> entries;
+    private final ConcurrentHashMap<Integer, CompletableFuture<Person>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param loader            fetches a missing person, may be slow
+     * @param maximumSize       number of cached persons
+     * @param expireAfterWrite  time to live of an entry, {@code null} for no expiry
+     * @param refreshAfterWrite age after which an entry is reloaded in the background, {@code null} for no refresh
+     * @param refreshExecutor   runs background refreshes, {@link ForkJoinPool#commonPool()} by default
+     * @param ticker            source of {@link System#nanoTime()}, replaceable in tests
+     */
+    @Builder
+    private PersonCache(IntFunction<Person> loader, int maximumSize, Duration expireAfterWrite,
+                        Duration refreshAfterWrite, Executor refreshExecutor, LongSupplier ticker) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader is required");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.loader = loader;
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWrite == null ? Long.MAX_VALUE : expireAfterWrite.toNanos();
+        this.refreshAfterWriteNanos = refreshAfterWrite == null ? Long.MAX_VALUE : refreshAfterWrite.toNanos();
+        this.refreshExecutor = refreshExecutor == null ? ForkJoinPool.commonPool() : refreshExecutor;
+        this.ticker = ticker == null ? System::nanoTime : ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedPerson> eldest) {
+                if (size() > PersonCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+
+        };
+    }
+
+    /**
+     * @return cache whose misses are looked up in the database first and only then fetched by the slow fallback
+     */
+    static PersonCacheBuilder readThrough(Database database, IntFunction<Person> fallback) {
+        return builder().loader(id -> {
+            final Person person = database.findOrNull(id);
+            return person != null ? person : fallback.apply(id);
+        });
+    }
+
+    /**
+     * @return cached or loaded person, {@code null} when the loader did not find it
+     */
+    Person get(int id) {
+        final long now = ticker.getAsLong();
+        final CachedPerson entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry != null) {
+            final long age = now - entry.loadedAt;
+            if (age < expireAfterWriteNanos) {
+                hits.increment();
+                if (age >= refreshAfterWriteNanos) {
+                    refresh(id);
+                }
+                return entry.person;
+            }
+        }
+        misses.increment();
+        try {
+            return load(id, expireAfterWriteNanos).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return cached person without loading it; expired entries are treated as missing
+     */
+    Person getIfPresent(int id) {
+        final CachedPerson entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        return entry == null || ticker.getAsLong() - entry.loadedAt >= expireAfterWriteNanos ? null : entry.person;
+    }
+
+    void invalidate(int id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), totalLoadNanos.sum(),
+                         evictions.sum());
+    }
+
+    private void refresh(int id) {
+        if (inFlight.containsKey(id)) {
+            return;
+        }
+        refreshExecutor.execute(() -> load(id, refreshAfterWriteNanos).exceptionally(e -> {
+            log.warn("Refresh of person {} failed, keeping the current value", id, e);
+            return null;
+        }));
+    }
+
+    /**
+     * Single-flight: the first caller loads, the others wait for its future. An {@link Error} of the loader fails the
+     * future too and is rethrown.
+     *
+     * @param maxAgeNanos an entry younger than that, loaded since the caller looked, is taken instead of loading again
+     */
+    private CompletableFuture<Person> load(int id, long maxAgeNanos) {
+        final CompletableFuture<Person> future = new CompletableFuture<>();
+        final CompletableFuture<Person> running = inFlight.putIfAbsent(id, future);
+        if (running != null) {
+            return running;
+        }
+        final CachedPerson loaded;
+        synchronized (entries) {
+            loaded = entries.get(id);
+        }
+        if (loaded != null && ticker.getAsLong() - loaded.loadedAt < maxAgeNanos) {
+            inFlight.remove(id, future);
+            future.complete(loaded.person);
+            return future;
+        }
+        final long start = ticker.getAsLong();
+        try {
+            final Person person = loader.apply(id);
+            loads.increment();
+            if (person != null) {
+                synchronized (entries) {
+                    entries.put(id, new CachedPerson(person, ticker.getAsLong()));
+                }
+            }
+            future.complete(person);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            future.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+        } catch (Error e) {
+            loadFailures.increment();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            totalLoadNanos.add(ticker.getAsLong() - start);
+            inFlight.remove(id, future);
+        }
+        return future;
+    }
+
+    private static final class CachedPerson {
+
+        final Person person;
+        final long loadedAt;
+
+        CachedPerson(Person person, long loadedAt) {
+            this.person = person;
+            this.loadedAt = loadedAt;
+        }
+
+    }
+
+    @Value
+    static class Stats {
+
+        long hits;
+        long misses;
+        long loads;
+        long loadFailures;
+        long totalLoadNanos;
+        long evictions;
+
+        double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        double averageLoadNanos() {
+            final long attempts = loads + loadFailures;
+            return attempts == 0 ? 0.0 : (double) totalLoadNanos / attempts;
+        }
+
+    }
+
+}
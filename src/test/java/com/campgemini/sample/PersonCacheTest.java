@@ -0,0 +1,234 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see PersonCache
+ */
+class PersonCacheTest {
+
+    private static final Person DEFAULT_VALUE = new Person(0, "unknown", "unknown", 0);
+
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void readThrough_shouldFetchFromFallback_onlyOnce() {
+        // given
+        final Database database = new Database();
+        database.add(Person.builder()
+                           .id(1)
+                           .firstName("Jan")
+                           .lastName("Kowalski")
+                           .build());
+        final PersonCache cache = PersonCache.readThrough(database, id -> fetchDefaultPerson())
+                                             .maximumSize(100)
+                                             .build();
+        // when
+        final Person jan = cache.get(1);
+        final Person unknown1 = cache.get(10);
+        final Person unknown2 = cache.get(10);
+        // then
+        assertThat(jan.getFirstName()).isEqualTo("Jan");
+        assertThat(unknown1).isSameAs(DEFAULT_VALUE)
+                            .isSameAs(unknown2);
+        assertThat(loaderCalls).hasValue(1);
+        final PersonCache.Stats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(2);
+        assertThat(stats.getLoads()).isEqualTo(2);
+        assertThat(stats.hitRate()).isEqualTo(1 / 3.0);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        // given
+        final PersonCache cache = cache(2, null, null);
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        // when
+        cache.get(3);
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent(1)).isNotNull();
+        assertThat(cache.getIfPresent(2)).isNull();
+        assertThat(cache.getIfPresent(3)).isNotNull();
+        assertThat(cache.stats()
+                        .getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadAgain_afterTimeToLive() {
+        // given
+        final PersonCache cache = cache(10, Duration.ofSeconds(10), null);
+        cache.get(1);
+        // when
+        now.addAndGet(Duration.ofSeconds(9)
+                              .toNanos());
+        cache.get(1);
+        now.addAndGet(Duration.ofSeconds(1)
+                              .toNanos());
+        cache.get(1);
+        // then
+        assertThat(loaderCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldRefreshAhead_andReturnCurrentValueMeanwhile() {
+        // given
+        final List<Runnable> refreshes = new ArrayList<>();
+        final PersonCache cache = PersonCache.builder()
+                                             .loader(this::load)
+                                             .maximumSize(10)
+                                             .refreshAfterWrite(Duration.ofSeconds(5))
+                                             .refreshExecutor(refreshes::add)
+                                             .ticker(now::get)
+                                             .build();
+        final Person first = cache.get(1);
+        now.addAndGet(Duration.ofSeconds(6)
+                              .toNanos());
+        // when
+        final Person stale = cache.get(1);
+        refreshes.forEach(Runnable::run);
+        final Person refreshed = cache.get(1);
+        // then
+        assertThat(stale).isSameAs(first);
+        assertThat(refreshed).isNotSameAs(first);
+        assertThat(loaderCalls).hasValue(2);
+    }
+
+    @Test
+    void concurrentMisses_shouldCallLoaderOnce() throws Exception {
+        // given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final PersonCache cache = PersonCache.builder()
+                                             .loader(id -> {
+                                                 loaderCalls.incrementAndGet();
+                                                 loading.countDown();
+                                                 await(release);
+                                                 return DEFAULT_VALUE;
+                                             })
+                                             .maximumSize(10)
+                                             .build();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Person>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get(7)));
+            }
+            // when
+            loading.await();
+            Thread.sleep(100); // let the other threads join the running load
+            release.countDown();
+            // then
+            for (Future<Person> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(DEFAULT_VALUE);
+            }
+            assertThat(loaderCalls).hasValue(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void loaderFailure_shouldBeRethrown_andNotCached() {
+        // given
+        final PersonCache cache = PersonCache.builder()
+                                             .loader(id -> {
+                                                 throw new IllegalStateException("backend is down");
+                                             })
+                                             .maximumSize(10)
+                                             .build();
+        // when
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> cache.get(1));
+        // then
+        assertThat(ex).hasMessage("backend is down");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats()
+                        .getLoadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderError_shouldFailWaitingCallers() throws Exception {
+        // given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final PersonCache cache = PersonCache.builder()
+                                             .loader(id -> {
+                                                 loading.countDown();
+                                                 await(release);
+                                                 throw new LinkageError("class is missing");
+                                             })
+                                             .maximumSize(10)
+                                             .build();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Person> first = executor.submit(() -> cache.get(7));
+            loading.await();
+            final Future<Person> second = executor.submit(() -> cache.get(7));
+            // when
+            Thread.sleep(100); // let the second thread join the running load
+            release.countDown();
+            // then
+            for (Future<Person> result : List.of(first, second)) {
+                final ExecutionException ex = assertThrows(ExecutionException.class,
+                                                           () -> result.get(5, TimeUnit.SECONDS));
+                assertThat(ex).hasCauseInstanceOf(LinkageError.class);
+            }
+            assertThat(cache.stats()
+                            .getLoadFailures()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private PersonCache cache(int maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite) {
+        return PersonCache.builder()
+                          .loader(this::load)
+                          .maximumSize(maximumSize)
+                          .expireAfterWrite(expireAfterWrite)
+                          .refreshAfterWrite(refreshAfterWrite)
+                          .ticker(now::get)
+                          .build();
+    }
+
+    private Person load(int id) {
+        loaderCalls.incrementAndGet();
+        return Person.builder()
+                     .id(id)
+                     .build();
+    }
+
+    private Person fetchDefaultPerson() {
+        loaderCalls.incrementAndGet();
+        return DEFAULT_VALUE;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+}
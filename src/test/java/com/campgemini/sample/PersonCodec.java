@@ -0,0 +1,117 @@
+package com.campgemini.sample;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a single {@link Person}:
+ *
+ * <pre>
+ * int id | long salary | short firstName length | short lastName length | firstName UTF-8 | lastName UTF-8
+ * </pre>
+ *
+ * A length of {@code -1} encodes a {@code null} name. All methods use absolute positions, so they do not change the
+ * buffer's position and may be used by many readers of the same buffer at once.
+ */
+final class PersonCodec {
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + 2 * Short.BYTES;
+    static final int MAX_NAME_LENGTH = Short.MAX_VALUE;
+
+    private static final int SALARY = Integer.BYTES;
+    private static final int FIRST_NAME_LENGTH = SALARY + Long.BYTES;
+    private static final int LAST_NAME_LENGTH = FIRST_NAME_LENGTH + Short.BYTES;
+
+    private PersonCodec() {
+    }
+
+    /**
+     * @return UTF-8 bytes of the name or {@code null}
+     */
+    static byte[] encodeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_LENGTH + " bytes: " + bytes.length);
+        }
+        return bytes;
+    }
+
+    static int size(byte[] firstName, byte[] lastName) {
+        return HEADER_SIZE + length(firstName) + length(lastName);
+    }
+
+    /**
+     * @return size of the written record
+     */
+    static int write(ByteBuffer buffer, int offset, int id, long salary, byte[] firstName, byte[] lastName) {
+        buffer.putInt(offset, id);
+        buffer.putLong(offset + SALARY, salary);
+        buffer.putShort(offset + FIRST_NAME_LENGTH, (short) (firstName == null ? -1 : firstName.length));
+        buffer.putShort(offset + LAST_NAME_LENGTH, (short) (lastName == null ? -1 : lastName.length));
+        int position = offset + HEADER_SIZE;
+        position = putBytes(buffer, position, firstName);
+        position = putBytes(buffer, position, lastName);
+        return position - offset;
+    }
+
+    static int write(ByteBuffer buffer, int offset, Person person) {
+        return write(buffer, offset, person.getId(), person.getSalary(), encodeName(person.getFirstName()),
+                     encodeName(person.getLastName()));
+    }
+
+    static int id(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset);
+    }
+
+    static long salary(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + SALARY);
+    }
+
+    static String firstName(ByteBuffer buffer, int offset) {
+        return getString(buffer, offset + HEADER_SIZE, buffer.getShort(offset + FIRST_NAME_LENGTH));
+    }
+
+    static String lastName(ByteBuffer buffer, int offset) {
+        final int firstNameLength = Math.max(buffer.getShort(offset + FIRST_NAME_LENGTH), 0);
+        return getString(buffer, offset + HEADER_SIZE + firstNameLength, buffer.getShort(offset + LAST_NAME_LENGTH));
+    }
+
+    static int size(ByteBuffer buffer, int offset) {
+        return HEADER_SIZE + Math.max(buffer.getShort(offset + FIRST_NAME_LENGTH), 0)
+                + Math.max(buffer.getShort(offset + LAST_NAME_LENGTH), 0);
+    }
+
+    static Person read(ByteBuffer buffer, int offset) {
+        return new Person(id(buffer, offset), firstName(buffer, offset), lastName(buffer, offset),
+                          salary(buffer, offset));
+    }
+
+    private static int length(byte[] name) {
+        return name == null ? 0 : name.length;
+    }
+
+    private static int putBytes(ByteBuffer buffer, int position, byte[] bytes) {
+        if (bytes == null) {
+            return position;
+        }
+        for (byte b : bytes) {
+            buffer.put(position++, b);
+        }
+        return position;
+    }
+
+    private static String getString(ByteBuffer buffer, int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Person} import and export as UTF-8 CSV with the {@link #HEADER} line. Names are quoted only when they need
+ * it; a {@code null} name is an empty field, an empty name is {@code ""}.
+ *
+ * @see CsvTokenizer
+ * @see PersonBinary
+ */
+final class PersonCsv {
+
+    static final String HEADER = "id,firstName,lastName,salary";
+    private static final byte[] HEADER_LINE = (HEADER + '\n').getBytes(StandardCharsets.US_ASCII);
+
+    private PersonCsv() {
+    }
+
+    /**
+     * Loads the file with {@link Database#load(Iterator)}
+     *
+     * @return number of imported persons
+     */
+    static long importInto(Database database, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Reader reader = reader(channel)) {
+            database.load(reader);
+            return reader.count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static void export(Database database, Path path) throws IOException {
+        write(database.snapshot(), FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes the persons and closes the channel
+     */
+    static void write(Iterable<Person> persons, WritableByteChannel channel) throws IOException {
+        try (ChannelOutput output = new ChannelOutput(channel)) {
+            output.reserve(HEADER_LINE.length)
+                  .put(HEADER_LINE);
+            for (Person person : persons) {
+                write(output, person);
+            }
+        }
+    }
+
+    static Reader reader(ReadableByteChannel channel) throws IOException {
+        return reader(channel, ByteBufferPool.shared());
+    }
+
+    static Reader reader(ReadableByteChannel channel, ByteBufferPool buffers) throws IOException {
+        return new Reader(new CsvTokenizer(new ChannelInput(channel, buffers, ChannelInput.DEFAULT_BUFFER_SIZE)));
+    }
+
+    private static void write(ChannelOutput output, Person person) throws IOException {
+        final String firstName = person.getFirstName();
+        final String lastName = person.getLastName();
+        final int maxSize = 2 * 20 + 4 + maxSize(firstName) + maxSize(lastName);
+        final ByteBuffer buffer = output.reserve(maxSize);
+        putLong(buffer, person.getId());
+        buffer.put(CsvTokenizer.SEPARATOR);
+        putName(buffer, firstName);
+        buffer.put(CsvTokenizer.SEPARATOR);
+        putName(buffer, lastName);
+        buffer.put(CsvTokenizer.SEPARATOR);
+        putLong(buffer, person.getSalary());
+        buffer.put((byte) '\n');
+    }
+
+    private static int maxSize(String name) {
+        return name == null ? 0 : 2 + 2 * 3 * name.length();
+    }
+
+    private static void putName(ByteBuffer buffer, String name) {
+        if (name == null) {
+            return;
+        }
+        boolean plain = !name.isEmpty();
+        for (int i = 0; i < name.length() && plain; i++) {
+            final char c = name.charAt(i);
+            plain = c >= ' ' && c < 0x80 && c != CsvTokenizer.SEPARATOR && c != CsvTokenizer.QUOTE;
+        }
+        if (plain) {
+            for (int i = 0; i < name.length(); i++) {
+                buffer.put((byte) name.charAt(i));
+            }
+        } else {
+            buffer.put(CsvTokenizer.QUOTE)
+                  .put(name.replace("\"", "\"\"")
+                           .getBytes(StandardCharsets.UTF_8))
+                  .put(CsvTokenizer.QUOTE);
+        }
+    }
+
+    private static void putLong(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                buffer.put("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            value = -value;
+        }
+        final int digits = digits(value);
+        final int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Streaming reader; checks the header, skips blank lines. Malformed lines fail with an {@link IOException} naming
+     * the line, thrown as {@link UncheckedIOException} by the iterator methods.
+     */
+    static final class Reader implements Iterator<Person>, Closeable {
+
+        private final CsvTokenizer tokenizer;
+        private Person next;
+        private long count;
+
+        /**
+         * @throws IOException when the header is missing, the tokenizer is closed then
+         */
+        private Reader(CsvTokenizer tokenizer) throws IOException {
+            this.tokenizer = tokenizer;
+            try {
+                if (!isHeader()) {
+                    throw new IOException("Missing CSV header in line 1: " + HEADER);
+                }
+            } catch (IOException e) {
+                closeAfter(e);
+                throw e;
+            } catch (IllegalArgumentException e) {
+                final IOException malformed = new IOException("Missing CSV header in line 1: " + HEADER, e);
+                closeAfter(malformed);
+                throw malformed;
+            }
+        }
+
+        private boolean isHeader() throws IOException {
+            return tokenizer.next() && tokenizer.fields() == 4 && HEADER.equals(tokenizer.getString(0) + ','
+                    + tokenizer.getString(1) + ',' + tokenizer.getString(2) + ',' + tokenizer.getString(3));
+        }
+
+        private void closeAfter(IOException e) {
+            try {
+                tokenizer.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Person next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Person person = next;
+            next = null;
+            count++;
+            return person;
+        }
+
+        long count() {
+            return count;
+        }
+
+        private Person read() {
+            try {
+                while (tokenizer.next()) {
+                    if (tokenizer.fields() == 1 && tokenizer.isNull(0)) {
+                        continue;
+                    }
+                    if (tokenizer.fields() != 4) {
+                        throw new IOException("Expected 4 fields in line " + tokenizer.line() + ": "
+                                + tokenizer.fields());
+                    }
+                    return Person.builder()
+                                 .id(tokenizer.getInt(0))
+                                 .firstName(tokenizer.getString(1))
+                                 .lastName(tokenizer.getString(2))
+                                 .salary(tokenizer.getLong(3))
+                                 .build();
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (IllegalArgumentException e) {
+                // malformed quoting or numbers
+                throw new UncheckedIOException(new IOException(e.getMessage(), e));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            tokenizer.close();
+        }
+
+    }
+
+}
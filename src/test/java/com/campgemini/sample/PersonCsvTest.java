@@ -0,0 +1,131 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see PersonCsv
+ * @see CsvTokenizer
+ */
+class PersonCsvTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportAndImport_roundTrip() throws IOException {
+        // given
+        final Database database = new Database();
+        database.addAll(IntStream.range(-5, 10_000)
+                                 .mapToObj(id -> person(id, "Jan" + id, "Kowalski", id * 1000L))
+                                 .collect(Collectors.toList()));
+        database.add(person(10_000, "Anna, \"Ania\"", "Zażółć", Long.MIN_VALUE));
+        database.add(person(10_001, null, "", Long.MAX_VALUE));
+        database.add(person(10_002, "multi\nline", null, 0));
+        final Path path = directory.resolve("persons.csv");
+        // when
+        PersonCsv.export(database, path);
+        final Database imported = new Database();
+        final long count = PersonCsv.importInto(imported, path);
+        // then
+        assertThat(count).isEqualTo(10_008);
+        assertThat(imported.findAll()).containsExactlyInAnyOrderElementsOf(database.findAll());
+        assertThat(Files.readAllLines(path)
+                        .get(0)).isEqualTo(PersonCsv.HEADER);
+    }
+
+    @Test
+    void reader_crLfAndBlankLines() throws IOException {
+        // given
+        final String csv = "id,firstName,lastName,salary\r\n1,Jan,Kowalski,100\r\n\r\n2,\"\",,200";
+        // when
+        final List<Person> persons = new ArrayList<>();
+        try (PersonCsv.Reader reader = PersonCsv.reader(channel(csv))) {
+            reader.forEachRemaining(persons::add);
+        }
+        // then
+        assertThat(persons).containsExactly(person(1, "Jan", "Kowalski", 100), person(2, "", null, 200));
+    }
+
+    @Test
+    void reader_missingHeader() {
+        assertThrows(IOException.class, () -> PersonCsv.reader(channel("1,Jan,Kowalski,100\n")));
+    }
+
+    @Test
+    void reader_invalidSalary() throws IOException {
+        // given
+        try (PersonCsv.Reader reader = PersonCsv.reader(channel(PersonCsv.HEADER + "\n1,Jan,Kowalski,1x\n"))) {
+            // when
+            final UncheckedIOException ex = assertThrows(UncheckedIOException.class, reader::next);
+            // then
+            assertThat(ex.getCause()).hasMessageContaining("line 2")
+                                     .hasCauseInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    void importInto_wrongFieldCount() throws IOException {
+        // given
+        final Path path = Files.writeString(directory.resolve("persons.csv"), PersonCsv.HEADER + "\n1,Jan,100\n");
+        // when
+        final IOException ex = assertThrows(IOException.class, () -> PersonCsv.importInto(new Database(), path));
+        // then
+        assertThat(ex).hasMessage("Expected 4 fields in line 2: 3");
+    }
+
+    @Test
+    void tokenizer_recordsAcrossTinyBuffer() throws IOException {
+        // given: the buffer is smaller than a record, so it is refilled and grown in the middle of fields
+        final String csv = "a,\"b,\"\"c\"\"\",123\n\"x\"\r\n,-7,\n";
+        final ByteBufferPool buffers = ByteBufferPool.builder()
+                                                     .minBufferSize(4)
+                                                     .build();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new ChannelInput(channel(csv), buffers, 4))) {
+            // when
+            assertThat(tokenizer.next()).isTrue();
+            // then
+            assertThat(tokenizer.fields()).isEqualTo(3);
+            assertThat(tokenizer.getString(0)).isEqualTo("a");
+            assertThat(tokenizer.getString(1)).isEqualTo("b,\"c\"");
+            assertThat(tokenizer.getLong(2)).isEqualTo(123);
+            assertThat(tokenizer.next()).isTrue();
+            assertThat(tokenizer.getString(0)).isEqualTo("x");
+            assertThat(tokenizer.next()).isTrue();
+            assertThat(tokenizer.fields()).isEqualTo(3);
+            assertThat(tokenizer.isNull(0)).isTrue();
+            assertThat(tokenizer.getInt(1)).isEqualTo(-7);
+            assertThat(tokenizer.isNull(2)).isTrue();
+            assertThat(tokenizer.next()).isFalse();
+        }
+    }
+
+    @Test
+    void tokenizer_unterminatedQuote() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new ChannelInput(channel("\"abc\n")))) {
+            assertThrows(IllegalArgumentException.class, tokenizer::next);
+        }
+    }
+
+    static ReadableByteChannel channel(String content) {
+        return Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.campgemini.sample;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable, mutable view of a {@link Person} record encoded with {@link PersonCodec}. Reading the id and the salary
+ * does not allocate; names are decoded on demand.
+ *
+ * @see OffHeapPersonStore#read(int, PersonFlyweight)
+ */
+class PersonFlyweight {
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    PersonFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    int getId() {
+        return PersonCodec.id(buffer, offset);
+    }
+
+    long getSalary() {
+        return PersonCodec.salary(buffer, offset);
+    }
+
+    String getFirstName() {
+        return PersonCodec.firstName(buffer, offset);
+    }
+
+    String getLastName() {
+        return PersonCodec.lastName(buffer, offset);
+    }
+
+    Person toPerson() {
+        return PersonCodec.read(buffer, offset);
+    }
+
+    @Override
+    public String toString() {
+        return buffer == null ? "PersonFlyweight(unbound)" : "PersonFlyweight(" + toPerson() + ")";
+    }
+
+}
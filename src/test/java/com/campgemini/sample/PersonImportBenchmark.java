@@ -0,0 +1,120 @@
+package com.campgemini.sample;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Import and export throughput of {@link PersonCsv} and {@link PersonBinary}, with a {@link BufferedReader} and
+ * {@code String.split} import as the baseline. Files are created in {@code java.io.tmpdir}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonImportBenchmark {
+
+    @Param({ "1000000" })
+    private int persons;
+
+    private Database database;
+    private Path directory;
+    private Path csv;
+    private Path binary;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = new Database();
+        database.addAll(IntStream.range(0, persons)
+                                 .mapToObj(id -> Person.builder()
+                                                       .id(id)
+                                                       .firstName("Jan" + id % 1000)
+                                                       .lastName("Kowalski" + id % 10_000)
+                                                       .salary(id % 100_000)
+                                                       .build())
+                                 .collect(Collectors.toList()));
+        directory = Files.createTempDirectory("person-import");
+        csv = directory.resolve("persons.csv");
+        binary = directory.resolve("persons.bin");
+        output = directory.resolve("output");
+        PersonCsv.export(database, csv);
+        PersonBinary.export(database, binary);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(output);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Database bufferedReaderImport() throws IOException {
+        final List<Person> imported = new ArrayList<>(persons);
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(",");
+                imported.add(Person.builder()
+                                   .id(Integer.parseInt(fields[0]))
+                                   .firstName(fields[1])
+                                   .lastName(fields[2])
+                                   .salary(Long.parseLong(fields[3]))
+                                   .build());
+            }
+        }
+        final Database imports = new Database();
+        imports.addAll(imported);
+        return imports;
+    }
+
+    @Benchmark
+    public Database csvImport() throws IOException {
+        final Database imports = new Database();
+        PersonCsv.importInto(imports, csv);
+        return imports;
+    }
+
+    @Benchmark
+    public Database binaryImport() throws IOException {
+        final Database imports = new Database();
+        PersonBinary.importInto(imports, binary);
+        return imports;
+    }
+
+    @Benchmark
+    public void csvExport() throws IOException {
+        PersonCsv.export(database, output);
+    }
+
+    @Benchmark
+    public void binaryExport() throws IOException {
+        PersonBinary.export(database, output);
+    }
+
+}
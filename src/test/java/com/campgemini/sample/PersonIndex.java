@@ -0,0 +1,18 @@
+package com.campgemini.sample;
+
+/**
+ * Secondary index of {@link Database}, kept up to date by {@link Database#add(Person)}. Indexes are not cleared, a
+ * rebuild replaces them with new ones.
+ *
+ * @see SalaryIndex
+ * @see NamePrefixIndex
+ */
+interface PersonIndex {
+
+    /**
+     * @param previous person replaced in the database or {@code null}
+     * @param current  added person
+     */
+    void update(Person previous, Person current);
+
+}
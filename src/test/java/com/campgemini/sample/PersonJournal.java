@@ -0,0 +1,549 @@
+package com.campgemini.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durability for {@link Database}: an append-only write-ahead log of {@link Database#add(Person)} calls and periodic
+ * compacted snapshots, kept in a single directory as generations:
+ * <ul>
+ * <li>{@code wal-<n>.log} - records {@code int length | int crc32 | PersonCodec record}, appended through a
+ * {@link FileChannel}</li>
+ * <li>{@code snapshot-<n>.bin} - {@code int magic | long count | records | long crc32}, the content of the database
+ * at the moment log {@code n} was started</li>
+ * </ul>
+ * {@link #recover(Database)} maps the latest valid snapshot, replays the logs of its generation and later, cuts a
+ * torn tail off the last log and attaches the journal to the database. {@link #checkpoint()} starts a new generation
+ * and removes the older files once the new snapshot is durable.
+ * <p>
+ * Records are encoded into an in-memory buffer under a short lock and written to the channel by whichever thread
+ * flushes first; when {@link FsyncPolicy#GROUP_COMMIT} is used, threads waiting for their record to be forced share
+ * a single {@link FileChannel#force(boolean)}.
+ */
+@Slf4j
+class PersonJournal implements Closeable {
+
+    enum FsyncPolicy {
+        /**
+         * The log is written when the buffer fills up and forced only by {@link #flush()}, {@link #checkpoint()} and
+         * {@link #close()}. The fastest; a crash loses whatever the OS did not write out
+         */
+        NEVER,
+        /**
+         * The log is written and forced in the background every {@link #PERIODIC_INTERVAL}. A crash loses at most
+         * that much of recent adds
+         */
+        PERIODIC,
+        /**
+         * {@link Database#add(Person)} returns once its record has been forced to disk. Concurrent adds are forced
+         * together (group commit)
+         */
+        GROUP_COMMIT
+    }
+
+    static final Duration PERIODIC_INTERVAL = Duration.ofMillis(100);
+
+    private static final int SNAPSHOT_MAGIC = 0x50534E50;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final int IO_BUFFER_SIZE = 1 << 17;
+    private static final int MAX_RECORD_SIZE = PersonCodec.HEADER_SIZE + 2 * PersonCodec.MAX_NAME_LENGTH;
+    private static final long MAX_MAPPED_WINDOW = 1 << 30;
+    private static final Pattern LOG_NAME = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d+)\\.bin");
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final ScheduledExecutorService scheduler;
+    private final Object appendLock = new Object();
+    private final Object writeLock = new Object();
+
+    // guarded by appendLock
+    private ByteBuffer pending = ByteBuffer.allocate(IO_BUFFER_SIZE);
+    private long appendedSequence;
+
+    // guarded by writeLock
+    private ByteBuffer spare = ByteBuffer.allocate(IO_BUFFER_SIZE);
+    private FileChannel logChannel;
+    private long generation;
+    private volatile long writtenSequence;
+    private volatile long forcedSequence;
+
+    private Database database;
+    private volatile boolean closed;
+
+    private PersonJournal(Path directory, FsyncPolicy policy) {
+        this.directory = directory;
+        this.policy = policy;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "person-journal-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static PersonJournal open(Path directory, FsyncPolicy policy) throws IOException {
+        Files.createDirectories(directory);
+        final PersonJournal journal = new PersonJournal(directory, policy);
+        if (policy == FsyncPolicy.PERIODIC) {
+            final long interval = PERIODIC_INTERVAL.toMillis();
+            journal.scheduler.scheduleWithFixedDelay(journal::periodicFlush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        return journal;
+    }
+
+    /**
+     * Restores the content of the database from the latest snapshot and the logs written after it, then attaches the
+     * journal, so that every later {@link Database#add(Person)} is logged
+     *
+     * @param database empty database to restore into
+     * @return given database
+     */
+    Database recover(Database database) throws IOException {
+        if (this.database != null) {
+            throw new IllegalStateException("Journal is already attached to a database");
+        }
+        final long snapshotGeneration = loadLatestSnapshot(database::add);
+        final List<Long> logs = generations(LOG_NAME);
+        long lastGeneration = Math.max(snapshotGeneration, 1);
+        for (long logGeneration : logs) {
+            if (logGeneration >= snapshotGeneration) {
+                replay(logFile(logGeneration), database::add);
+                lastGeneration = Math.max(lastGeneration, logGeneration);
+            }
+        }
+        synchronized (writeLock) {
+            generation = lastGeneration;
+            logChannel = openLog(generation);
+        }
+        this.database = database;
+        database.attach(this);
+        return database;
+    }
+
+    /**
+     * Logs the person and applies the change to the in-memory database, both under the append lock, so that a
+     * checkpoint always sees the log and the database in the same state. Depending on the {@link FsyncPolicy} waits
+     * until the record is durable.
+     * <p>
+     * When encoding or {@code apply} fails, the record is taken back out of the log buffer and the failure rethrown.
+     */
+    void append(Person person, Runnable apply) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        final long sequence;
+        final int bufferedBytes;
+        synchronized (appendLock) {
+            final int mark = pending.position();
+            try {
+                encode(person);
+                apply.run();
+            } catch (RuntimeException | Error e) {
+                pending.position(mark);
+                throw e;
+            }
+            sequence = ++appendedSequence;
+            bufferedBytes = pending.position();
+        }
+        afterAppend(sequence, bufferedBytes);
+    }
+
+    /**
+     * Bulk variant of {@link #append(Person, Runnable)}: all records are encoded under a single lock and flushed
+     * together; a failure takes all of them back
+     */
+    void appendAll(Collection<? extends Person> persons, Runnable apply) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        final long sequence;
+        final int bufferedBytes;
+        synchronized (appendLock) {
+            final int mark = pending.position();
+            try {
+                for (Person person : persons) {
+                    encode(person);
+                }
+                apply.run();
+            } catch (RuntimeException | Error e) {
+                pending.position(mark);
+                throw e;
+            }
+            appendedSequence += persons.size();
+            sequence = appendedSequence;
+            bufferedBytes = pending.position();
+        }
+        afterAppend(sequence, bufferedBytes);
+    }
+
+    private void afterAppend(long sequence, int bufferedBytes) {
+        try {
+            if (policy == FsyncPolicy.GROUP_COMMIT) {
+                flush(sequence, true);
+            } else if (bufferedBytes >= FLUSH_THRESHOLD) {
+                flush(sequence, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not write journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Writes and forces everything appended so far
+     */
+    void flush() throws IOException {
+        final long sequence;
+        synchronized (appendLock) {
+            sequence = appendedSequence;
+        }
+        flush(sequence, true);
+    }
+
+    /**
+     * Starts a new log generation, writes a compacted snapshot of the database and removes files of older
+     * generations
+     */
+    void checkpoint() throws IOException {
+        if (database == null) {
+            throw new IllegalStateException("Journal is not attached to a database, call recover() first");
+        }
+        final PersonSnapshot snapshot;
+        final long newGeneration;
+        synchronized (writeLock) {
+            final ByteBuffer toWrite;
+            final long lastSequence;
+            synchronized (appendLock) {
+                snapshot = database.snapshot();
+                toWrite = swapPending();
+                lastSequence = appendedSequence;
+            }
+            writeFully(toWrite);
+            logChannel.force(false);
+            logChannel.close();
+            writtenSequence = forcedSequence = lastSequence;
+            newGeneration = generation + 1;
+            logChannel = openLog(newGeneration);
+            generation = newGeneration;
+        }
+        writeSnapshot(snapshot, newGeneration);
+        for (long old : generations(LOG_NAME)) {
+            if (old < newGeneration) {
+                Files.deleteIfExists(logFile(old));
+            }
+        }
+        for (long old : generations(SNAPSHOT_NAME)) {
+            if (old < newGeneration) {
+                Files.deleteIfExists(snapshotFile(old));
+            }
+        }
+        log.debug("Checkpoint {} of {} persons written to {}", newGeneration, snapshot.size(), directory);
+    }
+
+    /**
+     * Runs {@link #checkpoint()} in the background with given period
+     */
+    void checkpointEvery(Duration period) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                log.error("Periodic checkpoint of {} failed", directory, e);
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdownNow();
+        synchronized (writeLock) {
+            if (logChannel != null) {
+                flush();
+                logChannel.close();
+            }
+        }
+    }
+
+    private void periodicFlush() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.error("Periodic flush of {} failed", directory, e);
+        }
+    }
+
+    private void flush(long sequence, boolean force) throws IOException {
+        synchronized (writeLock) {
+            if (sequence <= (force ? forcedSequence : writtenSequence)) {
+                // a previous leader has already written (and forced) this record
+                return;
+            }
+            final ByteBuffer toWrite;
+            final long lastSequence;
+            synchronized (appendLock) {
+                toWrite = swapPending();
+                lastSequence = appendedSequence;
+            }
+            writeFully(toWrite);
+            writtenSequence = lastSequence;
+            if (force) {
+                logChannel.force(false);
+                forcedSequence = lastSequence;
+            }
+        }
+    }
+
+    /**
+     * Must be called holding both locks
+     *
+     * @return buffer with appended records, ready to be written
+     */
+    private ByteBuffer swapPending() {
+        final ByteBuffer full = pending;
+        pending = spare;
+        spare = full;
+        full.flip();
+        return full;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            logChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Must be called holding the append lock
+     */
+    private void encode(Person person) {
+        final byte[] firstName = PersonCodec.encodeName(person.getFirstName());
+        final byte[] lastName = PersonCodec.encodeName(person.getLastName());
+        final int size = PersonCodec.size(firstName, lastName);
+        if (pending.remaining() < RECORD_HEADER_SIZE + size) {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2,
+                                                                  pending.position() + RECORD_HEADER_SIZE + size));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        final int position = pending.position();
+        PersonCodec.write(pending, position + RECORD_HEADER_SIZE, person.getId(), person.getSalary(), firstName,
+                          lastName);
+        final CRC32 crc = new CRC32();
+        crc.update(pending.array(), pending.arrayOffset() + position + RECORD_HEADER_SIZE, size);
+        pending.putInt(position, size);
+        pending.putInt(position + Integer.BYTES, (int) crc.getValue());
+        pending.position(position + RECORD_HEADER_SIZE + size);
+    }
+
+    private FileChannel openLog(long generation) throws IOException {
+        final FileChannel channel = FileChannel.open(logFile(generation), StandardOpenOption.CREATE,
+                                                     StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    /**
+     * Replays valid records of the log and truncates it after the last one, dropping a torn or corrupted tail
+     */
+    private void replay(Path file, Consumer<Person> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            final CRC32 crc = new CRC32();
+            long position = 0;
+            windows:
+            while (position < size) {
+                final long window = Math.min(size - position, MAX_MAPPED_WINDOW);
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                int offset = 0;
+                while (offset + RECORD_HEADER_SIZE <= window) {
+                    final int length = buffer.getInt(offset);
+                    if (length < PersonCodec.HEADER_SIZE || length > MAX_RECORD_SIZE) {
+                        position += offset;
+                        break windows;
+                    }
+                    if (offset + RECORD_HEADER_SIZE + length > window) {
+                        // cut by the end of the window (remapped below) or by the end of the file (torn)
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(buffer.duplicate()
+                                     .position(offset + RECORD_HEADER_SIZE)
+                                     .limit(offset + RECORD_HEADER_SIZE + length));
+                    if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                        position += offset;
+                        break windows;
+                    }
+                    consumer.accept(PersonCodec.read(buffer, offset + RECORD_HEADER_SIZE));
+                    offset += RECORD_HEADER_SIZE + length;
+                }
+                final boolean lastWindow = position + window == size;
+                position += offset;
+                if (lastWindow) {
+                    break;
+                }
+            }
+            if (position < size) {
+                log.warn("Dropping {} bytes of torn or corrupted tail of {}", size - position, file);
+                channel.truncate(position);
+            }
+        }
+    }
+
+    /**
+     * @return generation of the loaded snapshot or {@code 0} when there is no valid snapshot
+     */
+    private long loadLatestSnapshot(Consumer<Person> consumer) throws IOException {
+        final List<Long> snapshots = generations(SNAPSHOT_NAME);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            final Path file = snapshotFile(snapshots.get(i));
+            if (isValidSnapshot(file)) {
+                readSnapshot(file, consumer);
+                return snapshots.get(i);
+            }
+            log.warn("Ignoring invalid snapshot {}", file);
+        }
+        return 0;
+    }
+
+    private static boolean isValidSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < Integer.BYTES + 2 * Long.BYTES) {
+                return false;
+            }
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            if (header.getInt(0) != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            final CRC32 crc = new CRC32();
+            final long end = size - Long.BYTES;
+            for (long position = Integer.BYTES + Long.BYTES; position < end; position += MAX_MAPPED_WINDOW) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                       Math.min(MAX_MAPPED_WINDOW, end - position)));
+            }
+            final ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+            channel.read(trailer, end);
+            return trailer.getLong(0) == crc.getValue();
+        }
+    }
+
+    private static void readSnapshot(Path file, Consumer<Person> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+            channel.read(header, 0);
+            long remaining = header.getLong(Integer.BYTES);
+            long position = header.capacity();
+            final long end = channel.size() - Long.BYTES;
+            while (remaining > 0) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                                            Math.min(MAX_MAPPED_WINDOW, end - position));
+                int offset = 0;
+                // the window is remapped at the first record it cuts
+                while (remaining > 0 && buffer.capacity() - offset >= PersonCodec.HEADER_SIZE
+                        && buffer.capacity() - offset >= PersonCodec.size(buffer, offset)) {
+                    consumer.accept(PersonCodec.read(buffer, offset));
+                    offset += PersonCodec.size(buffer, offset);
+                    remaining--;
+                }
+                if (offset == 0 && remaining > 0) {
+                    throw new IOException("Snapshot " + file + " ends before its last record");
+                }
+                position += offset;
+            }
+        }
+    }
+
+    private void writeSnapshot(PersonSnapshot snapshot, long generation) throws IOException {
+        final Path file = snapshotFile(generation);
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        final CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.putInt(SNAPSHOT_MAGIC)
+                  .putLong(snapshot.size());
+            buffer.flip();
+            write(channel, buffer);
+            for (Person person : snapshot) {
+                final byte[] firstName = PersonCodec.encodeName(person.getFirstName());
+                final byte[] lastName = PersonCodec.encodeName(person.getLastName());
+                final int size = PersonCodec.size(firstName, lastName);
+                if (buffer.remaining() < size) {
+                    buffer.flip();
+                    crc.update(buffer.duplicate());
+                    write(channel, buffer);
+                }
+                PersonCodec.write(buffer, buffer.position(), person.getId(), person.getSalary(), firstName, lastName);
+                buffer.position(buffer.position() + size);
+            }
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            write(channel, buffer);
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            write(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private List<Long> generations(Pattern pattern) throws IOException {
+        final List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(f -> {
+                final Matcher matcher = pattern.matcher(f.getFileName()
+                                                         .toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path logFile(long generation) {
+        return directory.resolve("wal-" + generation + ".log");
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve("snapshot-" + generation + ".bin");
+    }
+
+}
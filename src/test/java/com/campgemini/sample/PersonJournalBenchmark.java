@@ -0,0 +1,131 @@
+package com.campgemini.sample;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PersonJournal} benchmarks:
+ * <ul>
+ * <li>{@link #add} - throughput of journaled adds from 4 threads for every {@link PersonJournal.FsyncPolicy}</li>
+ * <li>{@link #recover} - restart time from a snapshot holding 90% of the persons plus a log with the rest</li>
+ * </ul>
+ * Files are created in {@code java.io.tmpdir}, which should be on the disk being measured.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonJournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writer {
+
+        @Param({ "NEVER", "PERIODIC", "GROUP_COMMIT" })
+        private String policy;
+
+        private Path directory;
+        private PersonJournal journal;
+        private Database database;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-write");
+            journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.valueOf(policy));
+            database = journal.recover(Database.concurrent());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            delete(directory);
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Restart {
+
+        @Param({ "1000000", "10000000" })
+        private int persons;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-restart");
+            try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.NEVER)) {
+                final Database database = journal.recover(new Database(new IntPersonStore(persons, 0.5f)));
+                final int inSnapshot = persons / 10 * 9;
+                for (int id = 0; id < persons; id++) {
+                    if (id == inSnapshot) {
+                        journal.checkpoint();
+                    }
+                    database.add(person(id));
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(4)
+    public void add(Writer writer) {
+        writer.database.add(person(ThreadLocalRandom.current()
+                                                    .nextInt(1_000_000)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public Database recover(Restart restart) throws IOException {
+        try (PersonJournal journal = PersonJournal.open(restart.directory, PersonJournal.FsyncPolicy.NEVER)) {
+            return journal.recover(new Database(new IntPersonStore(restart.persons, 0.5f)));
+        }
+    }
+
+    private static Person person(int id) {
+        return Person.builder()
+                     .id(id)
+                     .firstName("Jan")
+                     .lastName("Kowalski")
+                     .salary(id)
+                     .build();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder())
+                 .forEach(f -> f.toFile()
+                                .delete());
+        }
+    }
+
+}
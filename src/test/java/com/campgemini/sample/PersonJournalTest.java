@@ -0,0 +1,162 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see PersonJournal
+ */
+class PersonJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecoverPersons_fromLog() throws IOException {
+        // given
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.GROUP_COMMIT)) {
+            final Database database = journal.recover(new Database());
+            database.add(person(1, "Jan", "Kowalski", 2_000));
+            database.add(person(2, "Karolina", "Kowalski", 500));
+            database.add(person(1, "Janusz", "Kowalski", 3_000));
+        }
+        // when
+        final Database recovered = recover(PersonJournal.FsyncPolicy.NEVER);
+        // then
+        assertThat(recovered.findAll()).hasSize(2);
+        assertThat(recovered.findOrNull(1)).isEqualTo(person(1, "Janusz", "Kowalski", 3_000));
+        assertThat(recovered.findOrNull(2)).isEqualTo(person(2, "Karolina", "Kowalski", 500));
+    }
+
+    @Test
+    void shouldRecoverPersons_fromSnapshotAndLogTail() throws IOException {
+        // given
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.NEVER)) {
+            final Database database = journal.recover(new Database());
+            for (int id = 0; id < 1_000; id++) {
+                database.add(person(id, "Jan", "Kowalski", id));
+            }
+            journal.checkpoint();
+            database.add(person(0, "Adam", "Kowalski", 10_000));
+            database.add(person(1_000, "Karolina", "Kowalski", 1_000));
+        }
+        // when
+        final Database recovered = recover(PersonJournal.FsyncPolicy.NEVER);
+        // then
+        assertThat(files()).containsExactlyInAnyOrder("snapshot-2.bin", "wal-2.log");
+        assertThat(recovered.findAll()).hasSize(1_001);
+        assertThat(recovered.findOrNull(0)).isEqualTo(person(0, "Adam", "Kowalski", 10_000));
+        assertThat(recovered.findOrNull(999)).isEqualTo(person(999, "Jan", "Kowalski", 999));
+        assertThat(recovered.findOrNull(1_000)).isEqualTo(person(1_000, "Karolina", "Kowalski", 1_000));
+    }
+
+    @Test
+    void shouldDropTornTailOfLog() throws IOException {
+        // given
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.GROUP_COMMIT)) {
+            final Database database = journal.recover(new Database());
+            database.add(person(1, "Jan", "Kowalski", 2_000));
+            database.add(person(2, "Karolina", "Kowalski", 500));
+        }
+        final Path log = directory.resolve("wal-1.log");
+        final long fullSize = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 3);
+        }
+        // when
+        final Database recovered;
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.GROUP_COMMIT)) {
+            recovered = journal.recover(new Database());
+            recovered.add(person(3, "John", "Kowalski", 100));
+        }
+        final Database recoveredAgain = recover(PersonJournal.FsyncPolicy.NEVER);
+        // then
+        assertThat(recovered.findOrNull(2)).isNull();
+        assertThat(recoveredAgain.findAll()).extracting(Person::getId)
+                                            .containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    void failedAppend_shouldNotBeLogged() throws IOException {
+        // given
+        final String tooLong = "x".repeat(PersonCodec.MAX_NAME_LENGTH + 1);
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.NEVER)) {
+            final Database database = journal.recover(new Database());
+            database.add(person(1, "Jan", "Kowalski", 2_000));
+            // when: encoding fails for the second person of a batch, applying fails for a single add
+            assertThrows(IllegalArgumentException.class,
+                         () -> database.addAll(List.of(person(2, "Karolina", "Kowalski", 500),
+                                                       person(3, tooLong, "Kowalski", 100))));
+            assertThrows(IllegalStateException.class, () -> journal.append(person(4, "Adam", "Kowalski", 100), () -> {
+                throw new IllegalStateException("not applied");
+            }));
+            database.add(person(5, "Ewa", "Kowalski", 700));
+        }
+        // then
+        final Database recovered = recover(PersonJournal.FsyncPolicy.NEVER);
+        assertThat(recovered.findAll()).extracting(Person::getId)
+                                       .containsExactlyInAnyOrder(1, 5);
+    }
+
+    @Test
+    void groupCommit_shouldKeepAllConcurrentAdds() throws Exception {
+        // given
+        final int threads = 8;
+        final int perThread = 500;
+        try (PersonJournal journal = PersonJournal.open(directory, PersonJournal.FsyncPolicy.GROUP_COMMIT)) {
+            final Database database = journal.recover(Database.concurrent());
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                final List<Future<?>> futures = Stream.iterate(0, t -> t + 1)
+                                                      .limit(threads)
+                                                      .map(t -> executor.submit(() -> {
+                                                          for (int i = 0; i < perThread; i++) {
+                                                              final int id = t * perThread + i;
+                                                              database.add(person(id, "Jan", "Kowalski", id));
+                                                          }
+                                                      }))
+                                                      .collect(Collectors.toList());
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        // when
+        final Database recovered = recover(PersonJournal.FsyncPolicy.NEVER);
+        // then
+        assertThat(recovered.findAll()).hasSize(threads * perThread);
+    }
+
+    private Database recover(PersonJournal.FsyncPolicy policy) throws IOException {
+        try (PersonJournal journal = PersonJournal.open(directory, policy)) {
+            return journal.recover(new Database());
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(f -> f.getFileName()
+                                   .toString())
+                        .collect(Collectors.toList());
+        }
+    }
+
+}
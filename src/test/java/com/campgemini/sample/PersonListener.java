@@ -0,0 +1,14 @@
+package com.campgemini.sample;
+
+/**
+ * Notified by {@link Database} about every stored person, after the store (and the journal, when attached) accepted
+ * it. Called on the adding thread, so it has to be thread-safe when the database is shared.
+ *
+ * @see Database#addListener(PersonListener)
+ * @see PersonSketches
+ */
+interface PersonListener {
+
+    void added(Person person);
+
+}
@@ -0,0 +1,65 @@
+package com.campgemini.sample;
+
+import java.util.List;
+
+/**
+ * Approximate dashboard statistics kept up to date by {@link Database#add(Person)}: distinct last names
+ * ({@link HyperLogLog}), salary quantiles ({@link KllSketch}) and most frequent first names ({@link SpaceSaving}).
+ * Sketches of several databases (shards) can be merged.
+ * <p>
+ * The sketches only grow: replacing a person with the same id counts it again.
+ *
+ * @see Database#addListener(PersonListener)
+ */
+class PersonSketches implements PersonListener {
+
+    static final int DEFAULT_PRECISION = 14;
+    static final int DEFAULT_TOP_CAPACITY = 64;
+
+    private final HyperLogLog distinctLastNames;
+    private final KllSketch salaryQuantiles;
+    private final SpaceSaving<String> topFirstNames;
+
+    PersonSketches() {
+        this(DEFAULT_PRECISION, KllSketch.DEFAULT_K, DEFAULT_TOP_CAPACITY);
+    }
+
+    PersonSketches(int precision, int k, int topCapacity) {
+        this.distinctLastNames = new HyperLogLog(precision);
+        this.salaryQuantiles = new KllSketch(k);
+        this.topFirstNames = new SpaceSaving<>(topCapacity);
+    }
+
+    @Override
+    public void added(Person person) {
+        if (person.getLastName() != null) {
+            distinctLastNames.add(person.getLastName());
+        }
+        salaryQuantiles.add(person.getSalary());
+        if (person.getFirstName() != null) {
+            topFirstNames.add(person.getFirstName());
+        }
+    }
+
+    long distinctLastNames() {
+        return distinctLastNames.estimate();
+    }
+
+    /**
+     * @param fraction in range [0, 1], e.g. 0.5 for the median
+     */
+    long salaryQuantile(double fraction) {
+        return salaryQuantiles.quantile(fraction);
+    }
+
+    List<SpaceSaving.Entry<String>> topFirstNames(int n) {
+        return topFirstNames.top(n);
+    }
+
+    void merge(PersonSketches other) {
+        distinctLastNames.merge(other.distinctLastNames);
+        salaryQuantiles.merge(other.salaryQuantiles);
+        topFirstNames.merge(other.topFirstNames);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see PersonSketches
+ * @see HyperLogLog
+ * @see KllSketch
+ * @see SpaceSaving
+ */
+class PersonSketchesTest {
+
+    private static final int PERSONS = 200_000;
+
+    @Test
+    void hyperLogLog_withinThreeStandardErrors() {
+        // given
+        final HyperLogLog sketch = new HyperLogLog(PersonSketches.DEFAULT_PRECISION);
+        // when
+        for (int i = 0; i < PERSONS; i++) {
+            sketch.add("Kowalski" + i % 50_000);
+        }
+        // then
+        assertThat(sketch.standardError()).isLessThan(0.01);
+        assertThat(sketch.estimate()).isCloseTo(50_000L, withinPercentage(3 * 100 * sketch.standardError()));
+    }
+
+    @Test
+    void hyperLogLog_smallCardinalityIsAlmostExact() {
+        // given
+        final HyperLogLog sketch = new HyperLogLog(PersonSketches.DEFAULT_PRECISION);
+        // when
+        IntStream.range(0, 100)
+                 .forEach(i -> sketch.add("Nowak" + i));
+        // then
+        assertThat(sketch.estimate()).isCloseTo(100L, within(2L));
+    }
+
+    @Test
+    void kllSketch_rankErrorBelowTwoPercent() {
+        // given
+        final KllSketch sketch = new KllSketch();
+        final Random random = new Random(42);
+        final int[] values = IntStream.range(0, PERSONS)
+                                      .toArray();
+        for (int i = values.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        // when
+        for (int value : values) {
+            sketch.add(value);
+        }
+        // then
+        assertThat(sketch.retained()).isLessThan(3 * KllSketch.DEFAULT_K);
+        for (double fraction : new double[] { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 }) {
+            // the value of rank r is r, so the rank error is the value error
+            assertThat((double) sketch.quantile(fraction)).isCloseTo(fraction * PERSONS, within(0.02 * PERSONS));
+        }
+        assertThat(sketch.quantile(0)).isZero();
+        assertThat(sketch.quantile(1)).isEqualTo(PERSONS - 1);
+    }
+
+    @Test
+    void spaceSaving_findsHeavyHitters() {
+        // given
+        final SpaceSaving<String> sketch = new SpaceSaving<>(16);
+        // when: 3 heavy hitters, each above n / capacity, and a long tail of unique names
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("Jan");
+            if (i % 2 == 0) {
+                sketch.add("Anna");
+            }
+            if (i % 4 == 0) {
+                sketch.add("Piotr");
+            }
+            sketch.add("Name" + i);
+        }
+        // then
+        final List<SpaceSaving.Entry<String>> top = sketch.top(3);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem)
+                       .containsExactly("Jan", "Anna", "Piotr");
+        final long maximumError = sketch.total() / 16;
+        for (SpaceSaving.Entry<String> entry : top) {
+            assertThat(entry.getError()).isLessThanOrEqualTo(maximumError);
+        }
+        assertThat(top.get(0)
+                      .getCount()).isBetween(10_000L, 10_000L + maximumError);
+    }
+
+    @Test
+    void database_feedsSketches() {
+        // given
+        final Database database = new Database();
+        final PersonSketches sketches = new PersonSketches();
+        database.addListener(sketches);
+        // when
+        database.add(person(1, "Jan", "Kowalski", 100));
+        database.addAll(IntStream.rangeClosed(2, PERSONS)
+                                 .mapToObj(id -> person(id, id % 10 == 0 ? "Anna" : "Jan", "Nowak" + id % 1000, id))
+                                 .collect(Collectors.toList()));
+        // then
+        assertThat(sketches.distinctLastNames()).isCloseTo(1001L, withinPercentage(3));
+        assertThat((double) sketches.salaryQuantile(0.5)).isCloseTo(PERSONS / 2.0, within(0.02 * PERSONS));
+        assertThat(sketches.topFirstNames(2)).extracting(SpaceSaving.Entry::getItem)
+                                             .containsExactly("Jan", "Anna");
+    }
+
+    @Test
+    void merge_shards() {
+        // given: two shards with even and odd ids
+        final PersonSketches even = new PersonSketches();
+        final PersonSketches odd = new PersonSketches();
+        for (int id = 0; id < PERSONS; id++) {
+            (id % 2 == 0 ? even : odd).added(person(id, id % 3 == 0 ? "Anna" : "Jan", "Nowak" + id % 20_000, id));
+        }
+        // when
+        even.merge(odd);
+        // then
+        assertThat(even.distinctLastNames()).isCloseTo(20_000L, withinPercentage(3));
+        assertThat((double) even.salaryQuantile(0.9)).isCloseTo(0.9 * PERSONS, within(0.02 * PERSONS));
+        final List<SpaceSaving.Entry<String>> top = even.topFirstNames(2);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem)
+                       .containsExactly("Jan", "Anna");
+        assertThat(top.get(0)
+                      .getCount()).isGreaterThanOrEqualTo(PERSONS * 2 / 3);
+    }
+
+}
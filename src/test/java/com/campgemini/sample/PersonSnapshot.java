@@ -0,0 +1,36 @@
+package com.campgemini.sample;
+
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-only, point-in-time view of a {@link PersonStore}. Later changes of the store are not visible through the
+ * snapshot, so it can be iterated (also in parallel) while the database keeps changing.
+ *
+ * @see PersonStore#snapshot()
+ */
+interface PersonSnapshot extends Iterable<Person> {
+
+    /**
+     * @return person with given id or {@code null} when there is no such person
+     */
+    Person get(int id);
+
+    int size();
+
+    @Override
+    default Iterator<Person> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    default Stream<Person> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    default Stream<Person> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.campgemini.sample;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts persons by a primitive key without a {@code Comparator}: the keys are read once into a {@code long[]} and an
+ * LSD radix sort (8 bits per pass) orders them together with an index array, persons are moved only at the end, once.
+ * Passes on which all keys share the byte are skipped, so ids and salaries of a small range cost a few passes rather
+ * than eight.
+ * <p>
+ * The sort is stable: persons with equal keys keep their order.
+ */
+final class PersonSort {
+
+    private static final int PASSES = Long.BYTES;
+    private static final int RADIX = 256;
+
+    private PersonSort() {
+    }
+
+    static int[] orderById(Person[] persons) {
+        return orderBy(persons, Person::getId);
+    }
+
+    static int[] orderBySalary(Person[] persons) {
+        return orderBy(persons, Person::getSalary);
+    }
+
+    /**
+     * @return indexes of the persons in ascending order of the key, ties in the order of the array
+     */
+    static int[] orderBy(Person[] persons, ToLongFunction<Person> key) {
+        final int size = persons.length;
+        long[] keys = new long[size];
+        int[] order = new int[size];
+        final int[][] counts = new int[PASSES][RADIX];
+        for (int i = 0; i < size; i++) {
+            // flipped sign bit: signed order becomes unsigned order of the bytes
+            final long value = key.applyAsLong(persons[i]) ^ Long.MIN_VALUE;
+            keys[i] = value;
+            order[i] = i;
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][(int) (value >>> (pass * Byte.SIZE)) & 0xFF]++;
+            }
+        }
+        long[] keyBuffer = null;
+        int[] orderBuffer = null;
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int[] count = counts[pass];
+            if (isSingleDigit(count, size)) {
+                continue;
+            }
+            if (keyBuffer == null) {
+                keyBuffer = new long[size];
+                orderBuffer = new int[size];
+            }
+            // count[digit] becomes the start of the digit
+            int start = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                final int n = count[digit];
+                count[digit] = start;
+                start += n;
+            }
+            final int shift = pass * Byte.SIZE;
+            for (int i = 0; i < size; i++) {
+                final int target = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                keyBuffer[target] = keys[i];
+                orderBuffer[target] = order[i];
+            }
+            final long[] swapKeys = keys;
+            keys = keyBuffer;
+            keyBuffer = swapKeys;
+            final int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+        return order;
+    }
+
+    static void sortById(Person[] persons) {
+        apply(persons, orderById(persons));
+    }
+
+    static void sortBySalary(Person[] persons) {
+        apply(persons, orderBySalary(persons));
+    }
+
+    /**
+     * Like {@code list.sort(Comparator.comparingLong(key))}, one key read and one write per person
+     */
+    static void sortBy(List<Person> persons, ToLongFunction<Person> key) {
+        final Person[] array = persons.toArray(new Person[0]);
+        final int[] order = orderBy(array, key);
+        final ListIterator<Person> iterator = persons.listIterator();
+        for (int index : order) {
+            iterator.next();
+            iterator.set(array[index]);
+        }
+    }
+
+    /**
+     * Rearranges the persons into the order, {@code persons[i]} becomes the former {@code persons[order[i]]}
+     */
+    static void apply(Person[] persons, int[] order) {
+        final Person[] copy = persons.clone();
+        for (int i = 0; i < order.length; i++) {
+            persons[i] = copy[order[i]];
+        }
+    }
+
+    private static boolean isSingleDigit(int[] count, int size) {
+        for (int digit = 0; digit < RADIX; digit++) {
+            if (count[digit] != 0) {
+                return count[digit] == size;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.campgemini.sample;
+
+import static com.campgemini.sample.Persons.person;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see PersonSort
+ */
+class PersonSortTest {
+
+    @Test
+    void orderBySalary_shouldBeStable() {
+        // given
+        final Person[] persons = { person(1, null, null, 3000), person(2, null, null, -100), person(3, null, null, 3000),
+                person(4, null, null, Long.MIN_VALUE), person(5, null, null, Long.MAX_VALUE), person(6, null, null, 0) };
+        // when
+        final int[] order = PersonSort.orderBySalary(persons);
+        // then
+        assertThat(order).containsExactly(3, 1, 5, 0, 2, 4);
+    }
+
+    @Test
+    void sortById_shouldOrderNegativeIds() {
+        // given
+        final Person[] persons = { person(10, null, null, 0), person(-5, null, null, 0), person(0, null, null, 0),
+                person(Integer.MIN_VALUE, null, null, 0) };
+        // when
+        PersonSort.sortById(persons);
+        // then
+        assertThat(persons).extracting(Person::getId)
+                           .containsExactly(Integer.MIN_VALUE, -5, 0, 10);
+    }
+
+    @Test
+    void sortBy_shouldOrderLikeComparator() {
+        // given
+        final Random random = new Random(3);
+        final List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            persons.add(person(i, null, null, 1_000 + random.nextInt(20_000)));
+        }
+        final List<Person> expected = new ArrayList<>(persons);
+        expected.sort(Comparator.comparingLong(Person::getSalary));
+        // when
+        PersonSort.sortBy(persons, Person::getSalary);
+        // then
+        assertThat(persons).isEqualTo(expected);
+    }
+
+    @Test
+    void apply_shouldRearrangePersons() {
+        // given
+        final Person[] persons = { person(1, null, null, 0), person(2, null, null, 0), person(3, null, null, 0) };
+        // when
+        PersonSort.apply(persons, new int[] { 2, 0, 1 });
+        // then
+        assertThat(Arrays.stream(persons)
+                         .mapToInt(Person::getId)).containsExactly(3, 1, 2);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.campgemini.sample;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend of {@link Database}. Persons are keyed by {@link Person#getId()}
+ *
+ * @see IntPersonStore
+ * @see HashMapPersonStore
+ * @see ConcurrentPersonStore
+ * @see ColumnarPersonStore
+ * @see OffHeapPersonStore
+ */
+interface PersonStore {
+
+    /**
+     * @return person with given id or {@code null} when there is no such person
+     */
+    Person get(int id);
+
+    /**
+     * Looks up {@code ids[from..to)} and stores the results at the same positions of {@code result}, {@code null} for
+     * missing ids
+     */
+    default void getAll(int[] ids, Person[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            result[i] = get(ids[i]);
+        }
+    }
+
+    /**
+     * Stores the person, replacing the one with the same id
+     *
+     * @return replaced person or {@code null}
+     */
+    Person put(Person person);
+
+    int size();
+
+    void forEach(Consumer<? super Person> action);
+
+    /**
+     * Prepares the store for given total number of persons, so that a bulk load does not resize it repeatedly
+     */
+    default void ensureCapacity(int expectedSize) {
+    }
+
+    /**
+     * Bulk variant of {@link #put(Person)}; does not report replaced persons
+     */
+    default void putAll(Collection<? extends Person> persons) {
+        ensureCapacity(size() + persons.size());
+        for (Person person : persons) {
+            put(person);
+        }
+    }
+
+    /**
+     * @return read-only view of the current content, not affected by later changes
+     */
+    PersonSnapshot snapshot();
+
+    /**
+     * Live view of the current content for a traversal which completes before the next change. Unlike
+     * {@link #snapshot()} it does not make the next write copy the store. The default takes a snapshot, which stores
+     * written by other threads keep.
+     */
+    default Spliterator<Person> spliterator() {
+        return snapshot().spliterator();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.campgemini.sample;
+
+/**
+ * Test data of the {@link Person} based tests
+ */
+final class Persons {
+
+    private Persons() {
+    }
+
+    static Person person(int id, String firstName, String lastName, long salary) {
+        return Person.builder()
+                     .id(id)
+                     .firstName(firstName)
+                     .lastName(lastName)
+                     .salary(salary)
+                     .build();
+    }
+
+}
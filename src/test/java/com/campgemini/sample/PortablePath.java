@@ -0,0 +1,649 @@
+package com.campgemini.sample;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Path of either syntax, independent of the file system the code runs on: unlike {@link Path} of {@link PathsTest},
+ * {@code c:\temp\report.pdf} has the same root, names and {@code relativize} result on Linux, Windows and every JDK.
+ * <p>
+ * Parsing is a single pass over the characters which validates them and drops redundant separators; input already in
+ * canonical form is not copied. Where each name starts is found on first use, like in the JDK's own paths, and names
+ * are cut from the text only when asked for. {@link #normalize()} returns the same instance when there is nothing to
+ * remove.
+ * <ul>
+ * <li>{@link Style#WINDOWS} - {@code \} and {@code /} separate names, roots are {@code c:\}, {@code c:} (drive
+ * relative), {@code \} and {@code \\server\share\}; names compare ignoring case; printed with {@code \}</li>
+ * <li>{@link Style#POSIX} - only {@code /} separates names, the root is {@code /}; names compare exactly</li>
+ * </ul>
+ * The empty path has no names.
+ */
+final class PortablePath {
+
+    enum Style {
+
+        WINDOWS('\\'), POSIX('/');
+
+        private final char separator;
+
+        Style(char separator) {
+            this.separator = separator;
+        }
+
+        char separator() {
+            return separator;
+        }
+
+        boolean isSeparator(char c) {
+            return c == '/' || this == WINDOWS && c == '\\';
+        }
+
+    }
+
+    private static final String CURRENT = ".";
+    private static final String PARENT = "..";
+    private static final int[] NO_NAMES = new int[0];
+
+    private final Style style;
+    private final String text;
+    private final int rootLength;
+    private volatile int[] offsets;
+    private int hash;
+
+    private PortablePath(Style style, String text, int rootLength) {
+        this.style = style;
+        this.text = text;
+        this.rootLength = rootLength;
+    }
+
+    static PortablePath windows(CharSequence path) {
+        return parse(path, Style.WINDOWS);
+    }
+
+    static PortablePath posix(CharSequence path) {
+        return parse(path, Style.POSIX);
+    }
+
+    /**
+     * Windows syntax when the path starts with a drive or contains {@code \}, POSIX otherwise
+     */
+    static PortablePath of(CharSequence path) {
+        return parse(path, detect(path));
+    }
+
+    /**
+     * @throws InvalidPathException for characters the style does not allow in names or an incomplete UNC root
+     */
+    static PortablePath parse(CharSequence path, Style style) {
+        final int length = path.length();
+        final boolean windows = style == Style.WINDOWS;
+        final Composer composer = new Composer(style, path);
+        int start = -1;
+        for (int i = windows ? windowsRoot(path, composer) : posixRoot(path, composer); i < length; i++) {
+            final char c = path.charAt(i);
+            if (c == '/' || windows && c == '\\') {
+                if (start >= 0) {
+                    composer.keepName(start, i);
+                    start = -1;
+                }
+            } else {
+                if (isIllegal(c, windows)) {
+                    throw illegalChar(path, i);
+                }
+                if (start < 0) {
+                    start = i;
+                }
+            }
+        }
+        if (start >= 0) {
+            composer.keepName(start, length);
+        }
+        return composer.build();
+    }
+
+    Style getStyle() {
+        return style;
+    }
+
+    boolean isAbsolute() {
+        if (style == Style.POSIX) {
+            return rootLength > 0;
+        }
+        // c:\ or \\server\share\, but neither c: nor \
+        return rootLength > 2;
+    }
+
+    /**
+     * @return root alone, {@code null} for a relative path
+     */
+    PortablePath getRoot() {
+        if (rootLength == 0) {
+            return null;
+        }
+        return rootLength == text.length() ? this : new PortablePath(style, text.substring(0, rootLength), rootLength);
+    }
+
+    int getNameCount() {
+        return offsets().length;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an index out of range, like {@link Path#getName(int)}
+     */
+    PortablePath getName(int index) {
+        final int count = offsets().length;
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Name index " + index + " out of range for " + count + " names");
+        }
+        return name(index);
+    }
+
+    /**
+     * @return last name, {@code null} for a path without names
+     */
+    PortablePath getFileName() {
+        final int count = offsets().length;
+        if (count == 0) {
+            return null;
+        }
+        return count == 1 && rootLength == 0 ? this : name(count - 1);
+    }
+
+    /**
+     * @return path without the last name, {@code null} when nothing would be left
+     */
+    PortablePath getParent() {
+        final int[] offsets = offsets();
+        final int count = offsets.length;
+        if (count == 0 || count == 1 && rootLength == 0) {
+            return null;
+        }
+        return new PortablePath(style, text.substring(0, count == 1 ? rootLength : offsets[count - 1] - 1),
+                                rootLength);
+    }
+
+    /**
+     * Removes {@code .} and a name followed by {@code ..}; {@code ..} directly below a root directory ({@code /},
+     * {@code c:\}, {@code \}) is dropped, in a relative or drive relative ({@code c:..}) path leading {@code ..} names
+     * stay
+     */
+    PortablePath normalize() {
+        final int[] offsets = offsets();
+        final int count = offsets.length;
+        final boolean rootDirectory = style == Style.POSIX ? rootLength > 0 : rootLength > 0 && rootLength != 2;
+        int redundant = 0;
+        while (redundant < count && !nameIs(redundant, CURRENT) && !nameIs(redundant, PARENT)) {
+            redundant++;
+        }
+        if (redundant == count) {
+            return this;
+        }
+        final int[] kept = new int[count];
+        for (int i = 0; i < redundant; i++) {
+            kept[i] = i;
+        }
+        int size = redundant;
+        boolean changed = false;
+        for (int i = redundant; i < count; i++) {
+            if (nameIs(i, CURRENT)) {
+                changed = true;
+            } else if (nameIs(i, PARENT)) {
+                if (size > 0 && !nameIs(kept[size - 1], PARENT)) {
+                    size--;
+                    changed = true;
+                } else if (rootDirectory) {
+                    changed = true;
+                } else {
+                    kept[size++] = i;
+                }
+            } else {
+                kept[size++] = i;
+            }
+        }
+        if (!changed) {
+            return this;
+        }
+        final Composer composer = new Composer(style, text.length());
+        composer.root(text, 0, rootLength);
+        for (int i = 0; i < size; i++) {
+            composer.name(text, offsets[kept[i]], end(offsets, kept[i]));
+        }
+        return composer.build();
+    }
+
+    PortablePath resolve(CharSequence other) {
+        return resolve(parse(other, style));
+    }
+
+    /**
+     * Like {@link Path#resolve(Path)}: an absolute {@code other} is returned as it is, {@code \name} on Windows gets
+     * the drive of this path, {@code c:name} is appended only to a path on the same drive
+     */
+    PortablePath resolve(PortablePath other) {
+        checkStyle(other);
+        if (other.rootLength == 0) {
+            if (other.text.isEmpty()) {
+                return this;
+            }
+            if (text.isEmpty()) {
+                return other;
+            }
+            return append(this, other);
+        }
+        if (other.isAbsolute() || style == Style.POSIX) {
+            return other;
+        }
+        if (other.rootLength == 1) {
+            // \name: root of the current drive
+            if (rootLength < 2) {
+                return other;
+            }
+            final Composer composer = new Composer(style, rootLength + other.text.length());
+            composer.root(text, 0, rootLength);
+            if (rootLength == 2) {
+                // c: gets c:\
+                composer.separator();
+            }
+            return composer.names(other, 0)
+                           .build();
+        }
+        // c:name: relative to the current directory of drive c
+        if (rootLength >= 2 && text.regionMatches(true, 0, other.text, 0, 2) && text.charAt(1) == ':') {
+            return append(this, other);
+        }
+        return other;
+    }
+
+    PortablePath resolveSibling(CharSequence other) {
+        return resolveSibling(parse(other, style));
+    }
+
+    PortablePath resolveSibling(PortablePath other) {
+        checkStyle(other);
+        final PortablePath parent = getParent();
+        return parent == null ? other : parent.resolve(other);
+    }
+
+    /**
+     * Relative path from this path to {@code other}, both normalized first, so the result does not depend on
+     * redundant names: {@code c:\personal\.\photos\..\readme.txt} to {@code c:\personal\index.html} is
+     * {@code ..\index.html}
+     *
+     * @throws IllegalArgumentException when the paths differ in style or root, or this path starts with {@code ..}
+     *                                  names not shared by {@code other}
+     */
+    PortablePath relativize(PortablePath other) {
+        checkStyle(other);
+        final PortablePath from = normalize();
+        final PortablePath to = other.normalize();
+        if (from.rootLength != to.rootLength
+                || !from.text.regionMatches(style == Style.WINDOWS, 0, to.text, 0, from.rootLength)) {
+            throw new IllegalArgumentException("'" + other + "' has a different root than '" + this + "'");
+        }
+        final int count = from.offsets().length;
+        final int otherCount = to.offsets().length;
+        int common = 0;
+        while (common < count && common < otherCount && from.nameEquals(common, to, common)) {
+            common++;
+        }
+        final Composer composer = new Composer(style, PARENT.length() * (count - common) + to.text.length());
+        for (int i = common; i < count; i++) {
+            if (from.nameIs(i, PARENT)) {
+                throw new IllegalArgumentException("Cannot relativize '" + other + "' against '" + this + "'");
+            }
+            composer.name(PARENT, 0, PARENT.length());
+        }
+        return composer.names(to, common)
+                       .build();
+    }
+
+    /**
+     * @return names joined with {@code separator}, the root as parsed, e.g. {@code a/b/c} of Windows {@code a\b\c}
+     */
+    String toString(char separator) {
+        if (separator == style.separator) {
+            return text;
+        }
+        return text.substring(0, rootLength) + text.substring(rootLength)
+                                                   .replace(style.separator, separator);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PortablePath)) {
+            return false;
+        }
+        final PortablePath other = (PortablePath) o;
+        return style == other.style && text.length() == other.text.length()
+                && text.regionMatches(style == Style.WINDOWS, 0, other.text, 0, text.length());
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                h = 31 * h + (style == Style.WINDOWS ? Character.toLowerCase(Character.toUpperCase(c)) : c);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * @return start of every name, the text is canonical so names are separated by exactly one separator
+     */
+    private int[] offsets() {
+        int[] result = offsets;
+        if (result == null) {
+            final int length = text.length();
+            if (rootLength == length) {
+                result = NO_NAMES;
+            } else {
+                int count = 1;
+                for (int i = rootLength; i < length; i++) {
+                    if (text.charAt(i) == style.separator) {
+                        count++;
+                    }
+                }
+                result = new int[count];
+                result[0] = rootLength;
+                for (int i = rootLength, n = 1; n < count; i++) {
+                    if (text.charAt(i) == style.separator) {
+                        result[n++] = i + 1;
+                    }
+                }
+            }
+            offsets = result;
+        }
+        return result;
+    }
+
+    private PortablePath name(int index) {
+        final int[] offsets = offsets();
+        return new PortablePath(style, text.substring(offsets[index], end(offsets, index)), 0);
+    }
+
+    private int end(int[] offsets, int index) {
+        return index + 1 < offsets.length ? offsets[index + 1] - 1 : text.length();
+    }
+
+    private boolean nameIs(int index, String name) {
+        final int[] offsets = offsets();
+        final int start = offsets[index];
+        return end(offsets, index) - start == name.length() && text.startsWith(name, start);
+    }
+
+    private boolean nameEquals(int index, PortablePath other, int otherIndex) {
+        final int[] offsets = offsets();
+        final int start = offsets[index];
+        final int length = end(offsets, index) - start;
+        final int[] otherOffsets = other.offsets();
+        final int otherStart = otherOffsets[otherIndex];
+        return other.end(otherOffsets, otherIndex) - otherStart == length
+                && text.regionMatches(style == Style.WINDOWS, start, other.text, otherStart, length);
+    }
+
+    private void checkStyle(PortablePath other) {
+        if (other.style != style) {
+            throw new IllegalArgumentException("'" + other + "' is a " + other.style + " path, not " + style);
+        }
+    }
+
+    /**
+     * @return names of {@code other} appended to {@code base}, the root of {@code other} is left out
+     */
+    private static PortablePath append(PortablePath base, PortablePath other) {
+        if (other.rootLength == other.text.length()) {
+            return base;
+        }
+        final String names = other.text.substring(other.rootLength);
+        return new PortablePath(base.style, base.rootLength == base.text.length() ? base.text + names
+                : base.text + base.style.separator + names, base.rootLength);
+    }
+
+    private static Style detect(CharSequence path) {
+        if (path.length() >= 2 && path.charAt(1) == ':' && isLetter(path.charAt(0))) {
+            return Style.WINDOWS;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '\\') {
+                return Style.WINDOWS;
+            }
+        }
+        return Style.POSIX;
+    }
+
+    private static int posixRoot(CharSequence path, Composer composer) {
+        if (path.length() > 0 && path.charAt(0) == '/') {
+            composer.keepSeparator(0);
+            composer.markRoot();
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @return index after the root, which is composed in canonical form
+     */
+    private static int windowsRoot(CharSequence path, Composer composer) {
+        final int length = path.length();
+        int i = 0;
+        if (length >= 2 && path.charAt(1) == ':' && isLetter(path.charAt(0))) {
+            composer.keep(0, 2);
+            i = 2;
+            if (length > 2 && Style.WINDOWS.isSeparator(path.charAt(2))) {
+                composer.keepSeparator(2);
+                i = 3;
+            }
+        } else if (length >= 2 && Style.WINDOWS.isSeparator(path.charAt(0))
+                && Style.WINDOWS.isSeparator(path.charAt(1))) {
+            // \\server\share\
+            composer.keepSeparator(0);
+            composer.keepSeparator(1);
+            i = 2;
+            for (int part = 0; part < 2; part++) {
+                while (i < length && Style.WINDOWS.isSeparator(path.charAt(i))) {
+                    i++;
+                }
+                final int start = i;
+                while (i < length && !Style.WINDOWS.isSeparator(path.charAt(i))) {
+                    if (isIllegal(path.charAt(i), true)) {
+                        throw illegalChar(path, i);
+                    }
+                    i++;
+                }
+                if (start == i) {
+                    throw new InvalidPathException(path.toString(), part == 0 ? "UNC path is missing hostname"
+                            : "UNC path is missing sharename", i);
+                }
+                composer.keep(start, i);
+                composer.keepSeparator(i);
+            }
+        } else if (length >= 1 && Style.WINDOWS.isSeparator(path.charAt(0))) {
+            composer.keepSeparator(0);
+            i = 1;
+        }
+        composer.markRoot();
+        return i;
+    }
+
+    private static boolean isIllegal(char c, boolean windows) {
+        if (c == 0) {
+            return true;
+        }
+        if (!windows) {
+            return false;
+        }
+        switch (c) {
+        case '<':
+        case '>':
+        case ':':
+        case '"':
+        case '|':
+        case '?':
+        case '*':
+            return true;
+        default:
+            return c < ' ';
+        }
+    }
+
+    private static InvalidPathException illegalChar(CharSequence path, int index) {
+        return new InvalidPathException(path.toString(), "Illegal char <" + path.charAt(index) + ">", index);
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    /**
+     * Canonical text of a path being built. A parsed path is composed in place: as long as the input
+     * is canonical nothing is copied and the input itself becomes the text, the builder takes over from the first
+     * character which has to change.
+     */
+    private static final class Composer {
+
+        private final Style style;
+        private final CharSequence source;
+        private char[] text;
+        private int length;
+        private int rootLength;
+        private boolean named;
+
+        Composer(Style style, int capacity) {
+            this.style = style;
+            this.source = null;
+            this.text = new char[Math.max(capacity, 16)];
+        }
+
+        /**
+         * Composes a path out of parts of {@code source}, see {@link #keep(int, int)}
+         */
+        Composer(Style style, CharSequence source) {
+            this.style = style;
+            this.source = source;
+        }
+
+        void root(String source, int start, int end) {
+            append(source, start, end);
+            rootLength = length;
+        }
+
+        void name(String source, int start, int end) {
+            if (named) {
+                append(style.separator);
+            }
+            named = true;
+            append(source, start, end);
+        }
+
+        Composer names(PortablePath path, int from) {
+            final int[] offsets = path.offsets();
+            for (int i = from; i < offsets.length; i++) {
+                name(path.text, offsets[i], path.end(offsets, i));
+            }
+            return this;
+        }
+
+        void separator() {
+            append(style.separator);
+            rootLength = length;
+        }
+
+        /**
+         * Appends characters {@code start..end} of the source, in place when they follow the kept ones
+         */
+        void keep(int start, int end) {
+            if (text == null && start == length) {
+                length = end;
+            } else {
+                copy();
+                ensure(end - start);
+                for (int i = start; i < end; i++) {
+                    text[length++] = source.charAt(i);
+                }
+            }
+        }
+
+        /**
+         * Appends the separator of the style, in place when the source has it at {@code index}
+         */
+        void keepSeparator(int index) {
+            if (text == null && index == length && index < source.length()
+                    && source.charAt(index) == style.separator) {
+                length++;
+            } else {
+                copy();
+                append(style.separator);
+            }
+        }
+
+        void keepName(int start, int end) {
+            if (named) {
+                keepSeparator(start - 1);
+            }
+            named = true;
+            keep(start, end);
+        }
+
+        void markRoot() {
+            rootLength = length;
+        }
+
+        PortablePath build() {
+            final String composed;
+            if (text != null) {
+                composed = new String(text, 0, length);
+            } else if (length == source.length()) {
+                composed = source.toString();
+            } else {
+                // trailing separators
+                composed = source.subSequence(0, length)
+                                 .toString();
+            }
+            return new PortablePath(style, composed, rootLength);
+        }
+
+        private void append(String source, int start, int end) {
+            ensure(end - start);
+            source.getChars(start, end, text, length);
+            length += end - start;
+        }
+
+        private void append(char c) {
+            ensure(1);
+            text[length++] = c;
+        }
+
+        private void ensure(int more) {
+            if (length + more > text.length) {
+                text = Arrays.copyOf(text, Math.max(length + more, text.length * 2));
+            }
+        }
+
+        /**
+         * Leaves composing in place: the kept characters are copied and composition goes on in the array
+         */
+        private void copy() {
+            if (text == null) {
+                text = new char[source.length() + 1];
+                for (int i = 0; i < length; i++) {
+                    text[i] = source.charAt(i);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.campgemini.sample;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PortablePath} against the {@link Path} of the default file system, on paths in that file system's syntax so
+ * both parse the same names.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortablePathBenchmark {
+
+    private static final String PATH = "/srv/app/config/./module-1/../module-2/conf.d/settings.properties";
+    private static final String OTHER = "/srv/app/data/module-2/cache/index.bin";
+    private static final String CHILD = "conf.d/../override.properties";
+
+    @Benchmark
+    public Path parseJdk() {
+        return Paths.get(OTHER);
+    }
+
+    @Benchmark
+    public PortablePath parsePortable() {
+        return PortablePath.posix(OTHER);
+    }
+
+    @Benchmark
+    public Path normalizeJdk() {
+        return Paths.get(PATH)
+                    .normalize();
+    }
+
+    @Benchmark
+    public PortablePath normalizePortable() {
+        return PortablePath.posix(PATH)
+                           .normalize();
+    }
+
+    @Benchmark
+    public Path resolveJdk() {
+        return Paths.get(OTHER)
+                    .resolve(CHILD)
+                    .normalize();
+    }
+
+    @Benchmark
+    public PortablePath resolvePortable() {
+        return PortablePath.posix(OTHER)
+                           .resolve(CHILD)
+                           .normalize();
+    }
+
+    @Benchmark
+    public Path relativizeJdk() {
+        return Paths.get(PATH)
+                    .normalize()
+                    .relativize(Paths.get(OTHER)
+                                     .normalize());
+    }
+
+    @Benchmark
+    public PortablePath relativizePortable() {
+        return PortablePath.posix(PATH)
+                           .relativize(PortablePath.posix(OTHER));
+    }
+
+    @Benchmark
+    public String fileNameJdk() {
+        return Paths.get(PATH)
+                    .getFileName()
+                    .toString();
+    }
+
+    @Benchmark
+    public String fileNamePortable() {
+        return PortablePath.posix(PATH)
+                           .getFileName()
+                           .toString();
+    }
+
+}
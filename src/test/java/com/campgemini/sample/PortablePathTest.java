@@ -0,0 +1,278 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.InvalidPathException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cases of {@link PathsTest} which depend on the operating system there, here with the Windows results on every
+ * system.
+ *
+ * @see PortablePath
+ */
+class PortablePathTest {
+
+    @Test
+    void fileName() {
+        // given
+        final PortablePath path = PortablePath.windows("c:\\code\\java\\PathTest.java");
+        // when
+        final String fileName = path.getFileName()
+                                    .toString();
+        // then
+        assertThat(fileName).isEqualTo("PathTest.java");
+    }
+
+    @Test
+    void name_root_c() {
+        // given
+        final PortablePath path = PortablePath.windows("c:\\code\\java\\PathTest.java");
+        // when
+        assertEquals("c:\\", path.getRoot()
+                                 .toString());
+        assertEquals("code", path.getName(0)
+                                 .toString());
+        assertEquals("java", path.getName(1)
+                                 .toString());
+        assertEquals("PathTest.java", path.getName(2)
+                                          .toString());
+        assertThrows(IllegalArgumentException.class, () -> path.getName(3));
+    }
+
+    @Test
+    void params_root_slash() {
+        // given
+        final PortablePath path = PortablePath.windows("/code/java/PathTest.java");
+        // when
+        assertEquals(3, path.getNameCount());
+        assertEquals("\\", path.getRoot()
+                               .toString());
+        assertEquals("\\code\\java\\PathTest.java", path.toString());
+        assertThat(path.isAbsolute()).isFalse();
+    }
+
+    @Test
+    void params_root_backslash() {
+        // given
+        final PortablePath path = PortablePath.windows("\\code\\\\java\\PathTest.java\\");
+        // when
+        assertEquals(3, path.getNameCount());
+        assertEquals("\\", path.getRoot()
+                               .toString());
+        assertEquals("PathTest.java", path.getName(2)
+                                          .toString());
+    }
+
+    @Test
+    void root_unc() {
+        // given
+        final PortablePath path = PortablePath.windows("//server/share/docs/report.pdf");
+        // when
+        assertEquals("\\\\server\\share\\", path.getRoot()
+                                                 .toString());
+        assertEquals(2, path.getNameCount());
+        assertThat(path.isAbsolute()).isTrue();
+        assertThrows(InvalidPathException.class, () -> PortablePath.windows("\\\\server"));
+    }
+
+    @Test
+    void parse_shouldRejectIllegalWindowsChars() {
+        assertThrows(InvalidPathException.class, () -> PortablePath.windows("c:\\temp\\re?port.pdf"));
+        assertThrows(InvalidPathException.class, () -> PortablePath.windows("temp\\c:report.pdf"));
+        assertThat(PortablePath.posix("temp/re?port.pdf")
+                               .getNameCount()).isEqualTo(2);
+    }
+
+    @Test
+    void posix_shouldTreatBackslashAsNameChar() {
+        // given
+        final PortablePath path = PortablePath.posix("//code//java\\PathTest.java");
+        // when
+        assertEquals("/code/java\\PathTest.java", path.toString());
+        assertEquals(2, path.getNameCount());
+        assertThat(path.isAbsolute()).isTrue();
+    }
+
+    @Test
+    void of_shouldDetectStyle() {
+        assertThat(PortablePath.of("c:report.pdf")
+                               .getStyle()).isEqualTo(PortablePath.Style.WINDOWS);
+        assertThat(PortablePath.of("temp\\report.pdf")
+                               .getStyle()).isEqualTo(PortablePath.Style.WINDOWS);
+        assertThat(PortablePath.of("/temp/report.pdf")
+                               .getStyle()).isEqualTo(PortablePath.Style.POSIX);
+    }
+
+    @Test
+    void resolve_p2HasNoRoot() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\temp");
+        // when
+        final PortablePath resolved = p1.resolve("report.pdf");
+        // then
+        assertEquals("c:\\temp\\report.pdf", resolved.toString());
+        assertEquals(2, resolved.getNameCount());
+    }
+
+    @Test
+    void resolve_p2HasRoot_p1HasRoot() {
+        // given
+        final PortablePath p1 = PortablePath.windows("C:\\temp\\test.txt");
+        final PortablePath p2 = PortablePath.windows("C:\\temp\\report.pdf");
+        // when
+        final PortablePath resolved = p1.resolve(p2);
+        // then
+        assertThat(resolved).isSameAs(p2);
+    }
+
+    @Test
+    void resolve_p2HasRootWithoutDrive() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\temp\\test.txt");
+        // when
+        final PortablePath resolved = p1.resolve("\\report.pdf");
+        // then
+        assertEquals("c:\\report.pdf", resolved.toString());
+    }
+
+    @Test
+    void resolve_p2IsDriveRelative() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\temp");
+        // when
+        final PortablePath sameDrive = p1.resolve("C:report.pdf");
+        final PortablePath otherDrive = p1.resolve("d:report.pdf");
+        // then
+        assertEquals("c:\\temp\\report.pdf", sameDrive.toString());
+        assertEquals("d:report.pdf", otherDrive.toString());
+    }
+
+    @Test
+    void resolve_p2IsDriveOnly() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\a");
+        // when
+        final PortablePath resolved = p1.resolve("C:");
+        // then
+        assertThat(resolved).isSameAs(p1);
+        assertEquals("d:", p1.resolve("d:")
+                             .toString());
+    }
+
+    @Test
+    void resolveSibling() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\temp\\test.txt");
+        // when
+        final PortablePath resolved = p1.resolveSibling("report.pdf");
+        // then
+        assertEquals("c:\\temp\\report.pdf", resolved.toString());
+    }
+
+    @Test
+    void normalize() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\personal\\.\\photos\\..\\readme.txt");
+        // when
+        final PortablePath normalized = p1.normalize();
+        // then
+        assertEquals("c:\\personal\\readme.txt", normalized.toString());
+        assertThat(normalized.normalize()).isSameAs(normalized);
+    }
+
+    @Test
+    void normalize_noRoot_allElementsAreRedundant() {
+        // given
+        final PortablePath p1 = PortablePath.windows("\\.\\..\\.\\..");
+        // when
+        final PortablePath normalized = p1.normalize();
+        // then
+        assertEquals("\\", normalized.toString());
+        assertEquals(0, normalized.getNameCount());
+    }
+
+    @Test
+    void normalize_relative_shouldKeepLeadingParents() {
+        // given
+        final PortablePath p1 = PortablePath.posix("../a/./../../b");
+        // when
+        final PortablePath normalized = p1.normalize();
+        // then
+        assertEquals("../../b", normalized.toString());
+    }
+
+    @Test
+    void normalize_driveRelative_shouldKeepLeadingParents() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:..\\x");
+        final PortablePath p2 = PortablePath.windows("c:a\\..\\..\\.\\x");
+        // when
+        final PortablePath normalized1 = p1.normalize();
+        final PortablePath normalized2 = p2.normalize();
+        // then
+        assertThat(normalized1).isSameAs(p1);
+        assertEquals("c:..\\x", normalized2.toString());
+        assertEquals("\\x", PortablePath.windows("\\..\\x")
+                                        .normalize()
+                                        .toString());
+    }
+
+    @Test
+    void relativize_p1IsNotNormalize_beforeRelativize() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\personal\\.\\photos\\..\\readme.txt");
+        final PortablePath p2 = PortablePath.windows("c:\\personal\\index.html");
+        // when
+        final PortablePath p3 = p1.relativize(p2);
+        // then
+        assertEquals("..\\index.html", p3.toString());
+        assertEquals("../index.html", p3.toString('/'));
+    }
+
+    @Test
+    void relativize_shouldIgnoreCase_onWindows() {
+        // given
+        final PortablePath p1 = PortablePath.windows("C:\\Temp");
+        final PortablePath p2 = PortablePath.windows("c:\\temp\\Reports\\2020");
+        // when
+        final PortablePath p3 = p1.relativize(p2);
+        // then
+        assertEquals("Reports\\2020", p3.toString());
+        assertThat(p1.resolve(p3)
+                     .equals(p2)).isTrue();
+        assertThat(p1.resolve(p3)).hasSameHashCodeAs(p2);
+    }
+
+    @Test
+    void relativize_shouldThrow_forDifferentRoots() {
+        // given
+        final PortablePath p1 = PortablePath.windows("c:\\temp");
+        // when
+        assertThrows(IllegalArgumentException.class, () -> p1.relativize(PortablePath.windows("d:\\temp")));
+        assertThrows(IllegalArgumentException.class, () -> p1.relativize(PortablePath.windows("temp")));
+        assertThrows(IllegalArgumentException.class, () -> p1.relativize(PortablePath.posix("/temp")));
+    }
+
+    @Test
+    void getParent() {
+        // given
+        final PortablePath path = PortablePath.posix("/code/java/PathTest.java");
+        // when
+        final PortablePath parent = path.getParent();
+        // then
+        assertEquals("/code/java", parent.toString());
+        assertEquals("/", parent.getParent()
+                                .getParent()
+                                .toString());
+        assertThat(parent.getParent()
+                         .getParent()
+                         .getParent()).isNull();
+        assertThat(PortablePath.posix("code")
+                               .getParent()).isNull();
+    }
+
+}
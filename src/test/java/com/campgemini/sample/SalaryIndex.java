@@ -0,0 +1,66 @@
+package com.campgemini.sample;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Navigable index on {@link Person#getSalary()} for range queries. Persons with the same salary are ordered by id.
+ */
+class SalaryIndex implements PersonIndex {
+
+    private final ConcurrentSkipListMap<Key, Person> persons = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void update(Person previous, Person current) {
+        if (previous != null) {
+            persons.remove(new Key(previous.getSalary(), previous.getId()));
+        }
+        persons.put(new Key(current.getSalary(), current.getId()), current);
+    }
+
+    /**
+     * @return live view of persons earning more than the salary, ordered by salary
+     */
+    Collection<Person> greaterThan(long salary) {
+        if (salary == Long.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        return persons.tailMap(new Key(salary + 1, Integer.MIN_VALUE), true)
+                      .values();
+    }
+
+    /**
+     * @return live view of persons earning at least {@code from} and at most {@code to}, ordered by salary
+     */
+    Collection<Person> between(long from, long to) {
+        if (from > to) {
+            return Collections.emptyList();
+        }
+        return persons.subMap(new Key(from, Integer.MIN_VALUE), true, new Key(to, Integer.MAX_VALUE), true)
+                      .values();
+    }
+
+    int size() {
+        return persons.size();
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final long salary;
+        private final int id;
+
+        Key(long salary, int id) {
+            this.salary = salary;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            final int bySalary = Long.compare(salary, other.salary);
+            return bySalary != 0 ? bySalary : Integer.compare(id, other.id);
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+
+/**
+ * {@link LongSummaryStatistics} of salaries which also keeps the values in a growable {@code long[]} for
+ * {@link #percentile(double)}. Partial results of parallel aggregation are merged with {@link #combine(SalaryStatistics)}.
+ *
+ * @see Database#salaryStatistics(boolean)
+ */
+class SalaryStatistics extends LongSummaryStatistics {
+
+    private long[] values = new long[16];
+    private int size;
+    private boolean sorted = true;
+
+    @Override
+    public void accept(long salary) {
+        super.accept(salary);
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        sorted = sorted && (size == 0 || values[size - 1] <= salary);
+        values[size++] = salary;
+    }
+
+    void combine(SalaryStatistics other) {
+        super.combine(other);
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + other.size, size << 1));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        sorted = false;
+    }
+
+    /**
+     * Nearest-rank percentile; the values are sorted on the first call
+     *
+     * @param percent in range [0, 100]
+     */
+    long percentile(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percent must be in range [0, 100]: " + percent);
+        }
+        if (size == 0) {
+            throw new IllegalStateException("There are no salaries");
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        final int rank = (int) Math.ceil(percent / 100 * size);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    long median() {
+        return percentile(50);
+    }
+
+}
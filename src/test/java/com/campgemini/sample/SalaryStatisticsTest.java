@@ -0,0 +1,77 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see SalaryStatistics
+ * @see GroupedSalaryStatistics
+ */
+class SalaryStatisticsTest {
+
+    private static final int PERSONS = 100_000;
+
+    private Database database;
+
+    @BeforeEach
+    void setUp() {
+        database = new Database();
+        database.load(IntStream.rangeClosed(1, PERSONS)
+                               .mapToObj(id -> Person.builder()
+                                                     .id(id)
+                                                     .firstName("Jan")
+                                                     .lastName(id % 2 == 0 ? "Kowalski" : "Nowak")
+                                                     .salary(id)
+                                                     .build()));
+    }
+
+    @Test
+    void salaryStatistics_sequentialAndParallel() {
+        for (boolean parallel : new boolean[] { false, true }) {
+            // when
+            final SalaryStatistics statistics = database.salaryStatistics(parallel);
+            // then
+            assertThat(statistics.getCount()).isEqualTo(PERSONS);
+            assertThat(statistics.getSum()).isEqualTo((long) PERSONS * (PERSONS + 1) / 2);
+            assertThat(statistics.getMin()).isEqualTo(1);
+            assertThat(statistics.getMax()).isEqualTo(PERSONS);
+            assertThat(statistics.getAverage()).isEqualTo((PERSONS + 1) / 2.0);
+            assertThat(statistics.median()).isEqualTo(PERSONS / 2);
+            assertThat(statistics.percentile(90)).isEqualTo(PERSONS / 10 * 9);
+            assertThat(statistics.percentile(0)).isEqualTo(1);
+            assertThat(statistics.percentile(100)).isEqualTo(PERSONS);
+        }
+    }
+
+    @Test
+    void salaryStatisticsBy_lastNameInitial() {
+        // when
+        final GroupedSalaryStatistics grouped = database.salaryStatisticsBy(GroupedSalaryStatistics.LAST_NAME_INITIAL,
+                                                                            true);
+        // then
+        assertThat(grouped.keys()).containsExactlyInAnyOrder('K', 'N');
+        final SalaryStatistics kowalski = grouped.get('K');
+        assertThat(kowalski.getCount()).isEqualTo(PERSONS / 2);
+        assertThat(kowalski.getMin()).isEqualTo(2);
+        assertThat(kowalski.getMax()).isEqualTo(PERSONS);
+        final SalaryStatistics nowak = grouped.get('N');
+        assertThat(nowak.getSum() + kowalski.getSum()).isEqualTo((long) PERSONS * (PERSONS + 1) / 2);
+        assertThat(grouped.get('X')).isNull();
+    }
+
+    @Test
+    void percentile_invalidArguments() {
+        // given
+        final SalaryStatistics statistics = new SalaryStatistics();
+        // then
+        assertThrows(IllegalStateException.class, statistics::median);
+        statistics.accept(10);
+        assertThrows(IllegalArgumentException.class, () -> statistics.percentile(101));
+    }
+
+}
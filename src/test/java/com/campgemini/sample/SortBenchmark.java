@@ -0,0 +1,127 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StringRadixSort}, {@link PersonSort} and {@link ParallelMergeSort} against {@code Collections.sort} and
+ * {@code Arrays.parallelSort} on random names and persons. Every operation sorts a fresh copy, the copy is part of
+ * every result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortBenchmark {
+
+    private static final Comparator<Person> BY_NAME = Comparator.comparing(Person::getLastName)
+                                                                .thenComparing(Person::getFirstName);
+    private static final Comparator<Person> BY_SALARY = Comparator.comparingLong(Person::getSalary);
+
+    @Param({ "1000000" })
+    private int size;
+
+    private String[] names;
+    private Person[] persons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        final String[] firstNames = { "Jan", "Anna", "Piotr", "Maria", "Krzysztof", "Katarzyna", "Tomasz",
+                "Agnieszka" };
+        names = new String[size];
+        persons = new Person[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "Kowalsk" + (char) ('a' + random.nextInt(26)) + random.nextInt(size);
+            persons[i] = Person.builder()
+                               .id(random.nextInt())
+                               .firstName(firstNames[random.nextInt(firstNames.length)])
+                               .lastName(names[i])
+                               .salary(1_000 + random.nextInt(100_000))
+                               .build();
+        }
+    }
+
+    @Benchmark
+    public List<String> namesCollectionsSort() {
+        final List<String> list = Arrays.asList(names.clone());
+        Collections.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public String[] namesArraysParallelSort() {
+        final String[] copy = names.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public String[] namesRadixSort() {
+        final String[] copy = names.clone();
+        StringRadixSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Person> personsByNameCollectionsSort() {
+        final List<Person> list = Arrays.asList(persons.clone());
+        Collections.sort(list, BY_NAME);
+        return list;
+    }
+
+    @Benchmark
+    public Person[] personsByNameArraysParallelSort() {
+        final Person[] copy = persons.clone();
+        Arrays.parallelSort(copy, BY_NAME);
+        return copy;
+    }
+
+    @Benchmark
+    public Person[] personsByNameMergeSort() {
+        final Person[] copy = persons.clone();
+        ParallelMergeSort.sort(copy, BY_NAME);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Person> personsBySalaryCollectionsSort() {
+        final List<Person> list = Arrays.asList(persons.clone());
+        Collections.sort(list, BY_SALARY);
+        return list;
+    }
+
+    @Benchmark
+    public Person[] personsBySalaryArraysParallelSort() {
+        final Person[] copy = persons.clone();
+        Arrays.parallelSort(copy, BY_SALARY);
+        return copy;
+    }
+
+    @Benchmark
+    public Person[] personsBySalaryRadixSort() {
+        final Person[] copy = persons.clone();
+        PersonSort.sortBySalary(copy);
+        return copy;
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.campgemini.sample;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import lombok.Value;
+
+/**
+ * Space-Saving heavy hitters: at most {@code capacity} monitored items; a new item takes over the counter of the least
+ * frequent one. Every item more frequent than {@code n / capacity} is monitored and every count over-estimates the
+ * true frequency by at most {@link Entry#getError()} (which is at most {@code n / capacity}).
+ */
+class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters = new HashMap<>();
+    private final TreeSet<Counter<T>> ordered = new TreeSet<>(Comparator.<Counter<T>> comparingLong(c -> c.count)
+                                                                        .thenComparingLong(c -> c.sequence));
+    private long total;
+    private long sequence;
+
+    SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    synchronized void add(T item) {
+        total++;
+        final Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count++;
+            ordered.add(counter);
+        } else if (counters.size() < capacity) {
+            monitor(item, 1, 0);
+        } else {
+            final Counter<T> evicted = ordered.pollFirst();
+            counters.remove(evicted.item);
+            monitor(item, evicted.count + 1, evicted.count);
+        }
+    }
+
+    /**
+     * @return up to {@code n} most frequent items, most frequent first
+     */
+    synchronized List<Entry<T>> top(int n) {
+        final List<Entry<T>> top = new ArrayList<>(Math.min(n, counters.size()));
+        final Iterator<Counter<T>> iterator = ordered.descendingIterator();
+        while (top.size() < n && iterator.hasNext()) {
+            final Counter<T> counter = iterator.next();
+            top.add(new Entry<>(counter.item, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    /**
+     * @return upper bound of the frequency of the item
+     */
+    synchronized long estimate(T item) {
+        final Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            return counter.count;
+        }
+        return counters.size() < capacity ? 0 : ordered.first().count;
+    }
+
+    synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Mergeable summary: counts of items monitored by both sides are summed, an item missing on a full side gets that
+     * side's minimum count added (as count and error); the {@code capacity} largest counters are kept.
+     */
+    void merge(SpaceSaving<T> other) {
+        final List<Entry<T>> others = other.top(Integer.MAX_VALUE);
+        final long otherTotal = other.total();
+        final long otherMin = others.size() < other.capacity ? 0 : others.get(others.size() - 1).count;
+        synchronized (this) {
+            final long min = counters.size() < capacity ? 0 : ordered.first().count;
+            final Map<T, Entry<T>> merged = new HashMap<>();
+            for (Counter<T> counter : counters.values()) {
+                merged.put(counter.item, new Entry<>(counter.item, counter.count + otherMin, counter.error + otherMin));
+            }
+            for (Entry<T> entry : others) {
+                final Entry<T> own = merged.get(entry.item);
+                merged.put(entry.item, own == null
+                        ? new Entry<>(entry.item, entry.count + min, entry.error + min)
+                        : new Entry<>(entry.item, own.count - otherMin + entry.count, own.error - otherMin + entry.error));
+            }
+            final List<Entry<T>> entries = new ArrayList<>(merged.values());
+            entries.sort(Comparator.<Entry<T>> comparingLong(Entry::getCount)
+                                   .reversed());
+            counters.clear();
+            ordered.clear();
+            for (Entry<T> entry : entries.subList(0, Math.min(capacity, entries.size()))) {
+                monitor(entry.item, entry.count, entry.error);
+            }
+            total += otherTotal;
+        }
+    }
+
+    private void monitor(T item, long count, long error) {
+        final Counter<T> counter = new Counter<>(item, count, error, sequence++);
+        counters.put(item, counter);
+        ordered.add(counter);
+    }
+
+    @Value
+    static class Entry<T> {
+        T item;
+        long count;
+        long error;
+    }
+
+    private static final class Counter<T> {
+
+        final T item;
+        long count;
+        final long error;
+        final long sequence;
+
+        Counter(T item, long count, long error, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of a string column: every distinct value is stored once and rows keep its {@code int} code.
+ * {@code null} is encoded as {@link #NULL}. Codes are assigned in order of appearance and never change; the values
+ * array is only appended to, so an array handed out by {@link #values()} stays valid for the codes it already contains.
+ */
+class StringDictionary {
+
+    static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        final Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        final int newCode = codes.size();
+        if (newCode == values.length) {
+            values = Arrays.copyOf(values, newCode << 1);
+        }
+        values[newCode] = value;
+        codes.put(value, newCode);
+        return newCode;
+    }
+
+    /**
+     * @return code of the value or {@link #NULL} when the value is not in the dictionary
+     */
+    int codeOf(String value) {
+        final Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL : code;
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    String[] values() {
+        return values;
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.campgemini.sample;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * MSD radix sort of strings into the order of {@link String#compareTo(String)} (the order of
+ * {@code Collections.sort} in {@link CollectionsTest}) without calling a comparator: strings are distributed into
+ * buckets by one byte of a character at a time (high byte, then low byte), a string which has ended goes first.
+ * <ul>
+ * <li>levels on which all strings share the byte (the high byte of ASCII text) cost one counting pass, nothing
+ * moves</li>
+ * <li>buckets of at most {@link #INSERTION_SORT_THRESHOLD} strings are insertion sorted from the current character</li>
+ * <li>buckets of at least {@link #PARALLEL_THRESHOLD} strings are sorted by tasks of the common
+ * {@link ForkJoinPool}</li>
+ * </ul>
+ * Not stable, equal strings may swap places, which cannot be told apart by their content. {@code null} elements are not
+ * allowed.
+ */
+final class StringRadixSort {
+
+    static final int INSERTION_SORT_THRESHOLD = 32;
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+    /**
+     * End of string bucket plus one bucket per byte value
+     */
+    private static final int BUCKETS = 257;
+
+    private StringRadixSort() {
+    }
+
+    static void sort(String[] strings) {
+        sort(strings, 0, strings.length, true);
+    }
+
+    /**
+     * @param parallel splits large buckets over the common {@link ForkJoinPool}
+     */
+    static void sort(String[] strings, int from, int to, boolean parallel) {
+        if (to - from < 2) {
+            return;
+        }
+        final String[] buffer = new String[strings.length];
+        if (parallel && to - from >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool()
+                        .invoke(new BucketTask(strings, buffer, from, to, 0));
+        } else {
+            sort(strings, buffer, from, to, 0, null);
+        }
+    }
+
+    /**
+     * Like {@code Collections.sort(list)}: the list is copied to an array, sorted and written back
+     */
+    static void sort(List<String> strings) {
+        final String[] array = strings.toArray(new String[0]);
+        sort(array);
+        final ListIterator<String> iterator = strings.listIterator();
+        for (String string : array) {
+            iterator.next();
+            iterator.set(string);
+        }
+    }
+
+    /**
+     * Sorts {@code [from, to)} whose strings have equal bytes before {@code depth}; buckets large enough are handed to
+     * {@code task} for parallel sorting when it is not {@code null}
+     */
+    private static void sort(String[] strings, String[] buffer, int from, int to, int depth, BucketTask task) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            final int[] counts = new int[BUCKETS + 1];
+            for (int i = from; i < to; i++) {
+                counts[digit(strings[i], depth) + 2]++;
+            }
+            int single = -1;
+            for (int bucket = 0; bucket < BUCKETS && single < 0; bucket++) {
+                if (counts[bucket + 1] == to - from) {
+                    single = bucket;
+                }
+            }
+            if (single == 0) {
+                // all strings ended, they are equal
+                return;
+            }
+            if (single > 0) {
+                // one byte for all, go on with the next one
+                depth++;
+                continue;
+            }
+            // bucket of a digit is digit + 1, counts[bucket] becomes its start
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[bucket + 1] += counts[bucket];
+            }
+            for (int i = from; i < to; i++) {
+                buffer[from + counts[digit(strings[i], depth) + 1]++] = strings[i];
+            }
+            System.arraycopy(buffer, from, strings, from, to - from);
+            // counts[bucket] is now its end; the strings which ended (bucket 0) are sorted
+            for (int bucket = 1; bucket < BUCKETS; bucket++) {
+                final int start = from + counts[bucket - 1];
+                final int end = from + counts[bucket];
+                if (end - start < 2) {
+                    continue;
+                }
+                if (task != null && end - start >= PARALLEL_THRESHOLD) {
+                    task.spawn(new BucketTask(strings, buffer, start, end, depth + 1));
+                } else {
+                    sort(strings, buffer, start, end, depth + 1, null);
+                }
+            }
+            return;
+        }
+        insertionSort(strings, from, to, depth >> 1);
+    }
+
+    /**
+     * @return byte {@code depth} of the string (even: high byte of a character, odd: low byte), {@code -1} after its
+     *         end
+     */
+    private static int digit(String string, int depth) {
+        final int index = depth >> 1;
+        if (index >= string.length()) {
+            return -1;
+        }
+        final char c = string.charAt(index);
+        return (depth & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    /**
+     * @param offset characters before it are equal in all strings
+     */
+    private static void insertionSort(String[] strings, int from, int to, int offset) {
+        for (int i = from + 1; i < to; i++) {
+            final String string = strings[i];
+            int j = i;
+            while (j > from && compare(strings[j - 1], string, offset) > 0) {
+                strings[j] = strings[j - 1];
+                j--;
+            }
+            strings[j] = string;
+        }
+    }
+
+    private static int compare(String a, String b, int offset) {
+        final int length = Math.min(a.length(), b.length());
+        for (int i = offset; i < length; i++) {
+            final char ca = a.charAt(i);
+            final char cb = b.charAt(i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static class BucketTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String[] strings;
+        private final String[] buffer;
+        private final int from;
+        private final int to;
+        private final int depth;
+        private transient RecursiveAction[] forked = new RecursiveAction[0];
+        private transient int forkedCount;
+
+        BucketTask(String[] strings, String[] buffer, int from, int to, int depth) {
+            this.strings = strings;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            sort(strings, buffer, from, to, depth, this);
+            for (int i = 0; i < forkedCount; i++) {
+                forked[i].join();
+            }
+        }
+
+        void spawn(BucketTask bucket) {
+            if (forkedCount == forked.length) {
+                forked = Arrays.copyOf(forked, Math.max(8, forkedCount * 2));
+            }
+            forked[forkedCount++] = bucket;
+            bucket.fork();
+        }
+
+    }
+
+}
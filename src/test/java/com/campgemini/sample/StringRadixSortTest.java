@@ -0,0 +1,68 @@
+package com.campgemini.sample;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @see StringRadixSort
+ */
+class StringRadixSortTest {
+
+    @Test
+    void sort_shouldOrderLikeCollectionsSort() {
+        // given
+        final List<String> words = new ArrayList<>(Arrays.asList("ala", "ma", "czarnego", "kota"));
+        // when
+        StringRadixSort.sort(words);
+        // then
+        assertThat(words).containsExactly("ala", "czarnego", "kota", "ma");
+    }
+
+    @Test
+    void sort_shouldUseDefaultOrder_ofCharacters() {
+        // given
+        final List<String> list = Arrays.asList("aa", "a", "A", "Aa", "1", "9", "10", " ", " 1", "2a", "Z", "",
+                                                "\u017c", "z", "\uffff", "a\u0100", "a\u00ff");
+        final List<String> expected = new ArrayList<>(list);
+        Collections.sort(expected);
+        // when
+        StringRadixSort.sort(list);
+        // then
+        assertThat(list).isEqualTo(expected);
+    }
+
+    @Test
+    void sort_shouldOrderLargeArray_inParallel() {
+        // given
+        final Random random = new Random(7);
+        final String[] names = new String[100_000];
+        for (int i = 0; i < names.length; i++) {
+            // many common prefixes and duplicates
+            names[i] = "Kowalsk" + (char) ('a' + random.nextInt(3)) + random.nextInt(5_000);
+        }
+        final String[] expected = names.clone();
+        Arrays.sort(expected);
+        // when
+        StringRadixSort.sort(names);
+        // then
+        assertThat(names).isEqualTo(expected);
+    }
+
+    @Test
+    void sort_shouldOrderRange_only() {
+        // given
+        final String[] strings = { "d", "c", "b", "a" };
+        // when
+        StringRadixSort.sort(strings, 1, 3, false);
+        // then
+        assertThat(strings).containsExactly("d", "b", "c", "a");
+    }
+
+}